@@ -0,0 +1,11 @@
+package dev.baristop.portfolio.listingservice.cache;
+
+/**
+ * Broadcast over Redis pub/sub when a cache entry was written or evicted, so that other nodes drop their local copy.
+ *
+ * @param origin    the node that changed the entry (ignored by that node itself)
+ * @param cacheName the name of the affected cache
+ * @param key       the affected key (as string), or null if the whole cache was cleared
+ */
+public record CacheInvalidationMessage(String origin, String cacheName, String key) {
+}
@@ -0,0 +1,61 @@
+package dev.baristop.portfolio.listingservice.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Publishes {@link CacheInvalidationMessage}s on the Redis channel {@link #CHANNEL}.
+ * <p>
+ * Publishing is best effort: a failure is logged, the local L1 TTL bounds the staleness on other nodes.
+ */
+@Slf4j
+public class CacheInvalidationPublisher {
+
+    public static final String CHANNEL = "cache-invalidation";
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final String nodeId;
+
+    public CacheInvalidationPublisher(StringRedisTemplate redisTemplate, ObjectMapper objectMapper, String nodeId) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.nodeId = nodeId;
+    }
+
+    public void publish(String cacheName, String key) {
+        try {
+            String message = objectMapper.writeValueAsString(new CacheInvalidationMessage(nodeId, cacheName, key));
+            redisTemplate.convertAndSend(CHANNEL, message);
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Failed to publish cache invalidation for cache={} key={}", cacheName, key, e);
+        }
+    }
+
+    /**
+     * Publishes one message per key in a single pipeline.
+     */
+    public void publishAll(String cacheName, Collection<String> keys) {
+        try {
+            List<String> messages = new ArrayList<>(keys.size());
+            for (String key : keys) {
+                messages.add(objectMapper.writeValueAsString(new CacheInvalidationMessage(nodeId, cacheName, key)));
+            }
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection stringConnection = (StringRedisConnection) connection;
+                messages.forEach(message -> stringConnection.publish(CHANNEL, message));
+                return null;
+            });
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Failed to publish cache invalidation for cache={} keys={}", cacheName, keys, e);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package dev.baristop.portfolio.listingservice.cache;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Encodes cache values of one type in a compact binary format, used by {@link CodecRedisSerializer}.
+ * <p>
+ * Every entry is prefixed with the codec's {@link #id()} and {@link #version()}. The layout of a codec must not change
+ * without incrementing its version: entries of an unknown version are treated as a cache miss, so nodes running
+ * different releases overwrite each other's entries instead of failing to read them.
+ *
+ * @param <T> the (exact) type of the values handled by this codec
+ */
+public interface CacheValueCodec<T> {
+
+    /**
+     * @return the type of the values handled by this codec
+     */
+    Class<T> type();
+
+    /**
+     * @return the id of this codec, unique among all registered codecs
+     */
+    byte id();
+
+    /**
+     * @return the version of the binary layout written by {@link #write}
+     */
+    byte version();
+
+    void write(T value, DataOutput out) throws IOException;
+
+    T read(DataInput in) throws IOException;
+}
@@ -0,0 +1,61 @@
+package dev.baristop.portfolio.listingservice.cache;
+
+import dev.baristop.portfolio.listingservice.listing.dto.CachedListing;
+import dev.baristop.portfolio.listingservice.listing.dto.ListingDto;
+import org.springframework.stereotype.Component;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.Instant;
+
+import static dev.baristop.portfolio.listingservice.cache.VarInts.readVarLong;
+import static dev.baristop.portfolio.listingservice.cache.VarInts.writeVarLong;
+
+/**
+ * Binary {@link CacheValueCodec} for {@link CachedListing}.
+ * <p>
+ * Layout (version 2): the listing as written by {@link ListingDtoCodec}, followed by the owner's Keycloak ID
+ * (var-int length + UTF-8 bytes) and updatedAt (var-long epoch seconds + var-int nanos).
+ * Version 1 entries lack updatedAt and are treated as cache misses.
+ */
+@Component
+public class CachedListingCodec implements CacheValueCodec<CachedListing> {
+
+    static final byte ID = 2;
+    static final byte VERSION = 2;
+
+    private final ListingDtoCodec listingCodec = new ListingDtoCodec();
+
+    @Override
+    public Class<CachedListing> type() {
+        return CachedListing.class;
+    }
+
+    @Override
+    public byte id() {
+        return ID;
+    }
+
+    @Override
+    public byte version() {
+        return VERSION;
+    }
+
+    @Override
+    public void write(CachedListing cachedListing, DataOutput out) throws IOException {
+        listingCodec.write(cachedListing.listing(), out);
+        ListingDtoCodec.writeString(out, cachedListing.ownerKeycloakId());
+        writeVarLong(out, cachedListing.updatedAt().getEpochSecond());
+        writeVarLong(out, cachedListing.updatedAt().getNano());
+    }
+
+    @Override
+    public CachedListing read(DataInput in) throws IOException {
+        ListingDto listing = listingCodec.read(in);
+        String ownerKeycloakId = ListingDtoCodec.readString(in);
+        Instant updatedAt = Instant.ofEpochSecond(readVarLong(in), readVarLong(in));
+
+        return new CachedListing(listing, ownerKeycloakId, updatedAt);
+    }
+}
@@ -0,0 +1,20 @@
+package dev.baristop.portfolio.listingservice.cache;
+
+import java.time.Duration;
+
+/**
+ * A cached value together with the data needed for probabilistic early refresh.
+ *
+ * @param value      the cached value
+ * @param expiresAt  epoch millis at which the shared (L2) entry expires
+ * @param loadMillis how long loading the value took, 0 if unknown (e.g. written via put)
+ */
+public record CachedValue(Object value, long expiresAt, long loadMillis) {
+
+    /**
+     * @return the remaining time to live, at least 1 ms
+     */
+    public Duration timeToLive() {
+        return Duration.ofMillis(Math.max(1, expiresAt - System.currentTimeMillis()));
+    }
+}
@@ -0,0 +1,146 @@
+package dev.baristop.portfolio.listingservice.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.support.NullValue;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.*;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link RedisSerializer} that writes values with a registered {@link CacheValueCodec} and all other values
+ * with a fallback serializer (JSON).
+ * <p>
+ * Codec entries start with a header: {@link #MAGIC}, codec id and layout version. The magic byte is not valid
+ * as the first byte of JSON, so JSON entries can still be read. Entries of an unknown codec or version, and entries
+ * that cannot be decoded, are returned as <code>null</code>, i.e. a cache miss: the value is loaded again and
+ * overwritten in the current format.
+ * <p>
+ * This tolerance only helps nodes that run this serializer. Nodes of a release that predates it cannot read
+ * codec entries, so the keys are versioned as well (see <code>CacheConfig.KEY_PREFIX</code>).
+ * <p>
+ * A {@link CachedValue} is written as an envelope (codec id {@link #ENVELOPE_ID}) holding its expiry and load time,
+ * followed by the serialized value itself. A cached null value ({@link NullValue}) is an envelope without value.
+ */
+@Slf4j
+public class CodecRedisSerializer implements RedisSerializer<Object> {
+
+    static final byte MAGIC = (byte) 0xCA;
+    static final byte ENVELOPE_ID = 0;
+    static final byte ENVELOPE_VERSION = 1;
+
+    private final Map<Class<?>, CacheValueCodec<?>> codecsByType = new HashMap<>();
+    private final Map<Byte, CacheValueCodec<?>> codecsById = new HashMap<>();
+    private final RedisSerializer<Object> fallback;
+
+    public CodecRedisSerializer(List<? extends CacheValueCodec<?>> codecs, RedisSerializer<Object> fallback) {
+        for (CacheValueCodec<?> codec : codecs) {
+            if (codec.id() == ENVELOPE_ID || codecsById.put(codec.id(), codec) != null) {
+                throw new IllegalArgumentException("Duplicate cache codec id: " + codec.id());
+            }
+            codecsByType.put(codec.type(), codec);
+        }
+        this.fallback = fallback;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value instanceof CachedValue cachedValue) {
+            return serializeEnvelope(cachedValue);
+        }
+
+        CacheValueCodec<?> codec = value != null ? codecsByType.get(value.getClass()) : null;
+        if (codec == null) {
+            return fallback.serialize(value);
+        }
+
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(MAGIC);
+            out.writeByte(codec.id());
+            out.writeByte(codec.version());
+            write(codec, value, out);
+
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new SerializationException("Could not encode " + value.getClass().getSimpleName(), e);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0 || bytes[0] != MAGIC) {
+            return fallback.deserialize(bytes);
+        }
+
+        if (bytes.length < 3) {
+            log.debug("Ignoring truncated cache entry");
+            return null;
+        }
+
+        if (bytes[1] == ENVELOPE_ID) {
+            return deserializeEnvelope(bytes);
+        }
+
+        CacheValueCodec<?> codec = codecsById.get(bytes[1]);
+        if (codec == null || codec.version() != bytes[2]) {
+            log.debug("Ignoring cache entry of codec={} version={}", bytes[1], bytes[2]);
+            return null;
+        }
+
+        try {
+            return codec.read(new DataInputStream(new ByteArrayInputStream(bytes, 3, bytes.length - 3)));
+        } catch (IOException | RuntimeException e) {
+            log.debug("Ignoring undecodable cache entry of codec={}", codec.id(), e);
+            return null;
+        }
+    }
+
+    private byte[] serializeEnvelope(CachedValue cachedValue) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(MAGIC);
+            out.writeByte(ENVELOPE_ID);
+            out.writeByte(ENVELOPE_VERSION);
+            VarInts.writeVarLong(out, cachedValue.expiresAt());
+            VarInts.writeVarLong(out, cachedValue.loadMillis());
+            if (cachedValue.value() != NullValue.INSTANCE) {
+                out.write(serialize(cachedValue.value()));
+            }
+
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new SerializationException("Could not encode cache entry", e);
+        }
+    }
+
+    private Object deserializeEnvelope(byte[] bytes) {
+        if (bytes[2] != ENVELOPE_VERSION) {
+            log.debug("Ignoring cache entry of envelope version={}", bytes[2]);
+            return null;
+        }
+
+        try {
+            ByteArrayInputStream in = new ByteArrayInputStream(bytes, 3, bytes.length - 3);
+            DataInputStream data = new DataInputStream(in);
+            long expiresAt = VarInts.readVarLong(data);
+            long loadMillis = VarInts.readVarLong(data);
+
+            Object value = in.available() > 0 ? deserialize(in.readAllBytes()) : NullValue.INSTANCE;
+            return value != null ? new CachedValue(value, expiresAt, loadMillis) : null;
+        } catch (IOException e) {
+            log.debug("Ignoring undecodable cache envelope", e);
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void write(CacheValueCodec<T> codec, Object value, DataOutput out) throws IOException {
+        codec.write((T) value, out);
+    }
+}
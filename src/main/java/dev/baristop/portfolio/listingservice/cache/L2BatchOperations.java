@@ -0,0 +1,61 @@
+package dev.baristop.portfolio.listingservice.cache;
+
+import org.springframework.cache.Cache;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Multi-key access to the shared (L2) tier, used by {@link TwoLevelCache#getAll} and {@link TwoLevelCache#evictAll}.
+ */
+public interface L2BatchOperations {
+
+    /**
+     * Falls back to one call per key, for L2 caches without multi-key support.
+     */
+    L2BatchOperations PER_KEY = new L2BatchOperations() {
+
+        @Override
+        public List<Object> getAll(Cache l2, List<?> keys) {
+            List<Object> values = new ArrayList<>(keys.size());
+            for (Object key : keys) {
+                Cache.ValueWrapper wrapper = l2.get(key);
+                values.add(wrapper != null ? wrapper.get() : null);
+            }
+            return values;
+        }
+
+        @Override
+        public <K> Set<K> putAllIfAbsent(Cache l2, Map<K, CachedValue> entries) {
+            Set<K> stored = new HashSet<>();
+            entries.forEach((key, entry) -> {
+                if (l2.putIfAbsent(key, entry) == null) {
+                    stored.add(key);
+                }
+            });
+            return stored;
+        }
+
+        @Override
+        public void evictAll(Cache l2, List<?> keys) {
+            keys.forEach(l2::evict);
+        }
+    };
+
+    /**
+     * @return the cached values in the order of the keys, null for missing keys
+     */
+    List<Object> getAll(Cache l2, List<?> keys);
+
+    /**
+     * Stores the entries whose keys are not cached yet, leaving existing entries untouched.
+     *
+     * @return the keys that have been stored
+     */
+    <K> Set<K> putAllIfAbsent(Cache l2, Map<K, CachedValue> entries);
+
+    void evictAll(Cache l2, List<?> keys);
+}
@@ -0,0 +1,177 @@
+package dev.baristop.portfolio.listingservice.cache;
+
+import dev.baristop.portfolio.listingservice.listing.dto.ListingDto;
+import dev.baristop.portfolio.listingservice.listing.entity.ListingStatus;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import static dev.baristop.portfolio.listingservice.cache.VarInts.readVarLong;
+import static dev.baristop.portfolio.listingservice.cache.VarInts.writeVarLong;
+
+/**
+ * Binary {@link CacheValueCodec} for {@link ListingDto}.
+ * <p>
+ * Layout (version 1):
+ * <ol>
+ *   <li>presence flags: one bit per nullable field, in field order</li>
+ *   <li>id as var-long</li>
+ *   <li>title, description: var-int length + UTF-8 bytes</li>
+ *   <li>price: zig-zag var-int scale + var-int length + unscaled two's-complement bytes</li>
+ *   <li>city: var-int length + UTF-8 bytes</li>
+ *   <li>status: ordinal byte</li>
+ *   <li>createdAt: var-long epoch seconds + var-int nanos</li>
+ *   <li>isFavorite: boolean byte</li>
+ * </ol>
+ * Absent fields are skipped. Adding a field or reordering {@link ListingStatus} requires a new {@link #VERSION}.
+ * <p>
+ * Not registered itself since plain DTOs are no longer cached, but used by {@link CachedListingCodec}.
+ */
+public class ListingDtoCodec implements CacheValueCodec<ListingDto> {
+
+    static final byte ID = 1;
+    static final byte VERSION = 1;
+
+    private static final int ID_PRESENT = 1;
+    private static final int TITLE_PRESENT = 1 << 1;
+    private static final int DESCRIPTION_PRESENT = 1 << 2;
+    private static final int PRICE_PRESENT = 1 << 3;
+    private static final int CITY_PRESENT = 1 << 4;
+    private static final int STATUS_PRESENT = 1 << 5;
+    private static final int CREATED_AT_PRESENT = 1 << 6;
+    private static final int FAVORITE_PRESENT = 1 << 7;
+
+    private static final ListingStatus[] STATUSES = ListingStatus.values();
+
+    @Override
+    public Class<ListingDto> type() {
+        return ListingDto.class;
+    }
+
+    @Override
+    public byte id() {
+        return ID;
+    }
+
+    @Override
+    public byte version() {
+        return VERSION;
+    }
+
+    @Override
+    public void write(ListingDto listing, DataOutput out) throws IOException {
+        int flags = (listing.getId() != null ? ID_PRESENT : 0)
+            | (listing.getTitle() != null ? TITLE_PRESENT : 0)
+            | (listing.getDescription() != null ? DESCRIPTION_PRESENT : 0)
+            | (listing.getPrice() != null ? PRICE_PRESENT : 0)
+            | (listing.getCity() != null ? CITY_PRESENT : 0)
+            | (listing.getStatus() != null ? STATUS_PRESENT : 0)
+            | (listing.getCreatedAt() != null ? CREATED_AT_PRESENT : 0)
+            | (listing.getIsFavorite() != null ? FAVORITE_PRESENT : 0);
+        out.writeByte(flags);
+
+        if (listing.getId() != null) {
+            writeVarLong(out, listing.getId());
+        }
+        if (listing.getTitle() != null) {
+            writeString(out, listing.getTitle());
+        }
+        if (listing.getDescription() != null) {
+            writeString(out, listing.getDescription());
+        }
+        if (listing.getPrice() != null) {
+            writeDecimal(out, listing.getPrice());
+        }
+        if (listing.getCity() != null) {
+            writeString(out, listing.getCity());
+        }
+        if (listing.getStatus() != null) {
+            out.writeByte(listing.getStatus().ordinal());
+        }
+        if (listing.getCreatedAt() != null) {
+            writeVarLong(out, listing.getCreatedAt().getEpochSecond());
+            writeVarLong(out, listing.getCreatedAt().getNano());
+        }
+        if (listing.getIsFavorite() != null) {
+            out.writeBoolean(listing.getIsFavorite());
+        }
+    }
+
+    @Override
+    public ListingDto read(DataInput in) throws IOException {
+        int flags = in.readUnsignedByte();
+
+        ListingDto listing = new ListingDto();
+        if ((flags & ID_PRESENT) != 0) {
+            listing.setId(readVarLong(in));
+        }
+        if ((flags & TITLE_PRESENT) != 0) {
+            listing.setTitle(readString(in));
+        }
+        if ((flags & DESCRIPTION_PRESENT) != 0) {
+            listing.setDescription(readString(in));
+        }
+        if ((flags & PRICE_PRESENT) != 0) {
+            listing.setPrice(readDecimal(in));
+        }
+        if ((flags & CITY_PRESENT) != 0) {
+            listing.setCity(readString(in));
+        }
+        if ((flags & STATUS_PRESENT) != 0) {
+            int ordinal = in.readUnsignedByte();
+            if (ordinal >= STATUSES.length) {
+                throw new IOException("Unknown listing status ordinal: " + ordinal);
+            }
+            listing.setStatus(STATUSES[ordinal]);
+        }
+        if ((flags & CREATED_AT_PRESENT) != 0) {
+            listing.setCreatedAt(Instant.ofEpochSecond(readVarLong(in), readVarLong(in)));
+        }
+        if ((flags & FAVORITE_PRESENT) != 0) {
+            listing.setIsFavorite(in.readBoolean());
+        }
+
+        return listing;
+    }
+
+    static void writeString(DataOutput out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(DataInput in) throws IOException {
+        byte[] bytes = new byte[readLength(in)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeDecimal(DataOutput out, BigDecimal value) throws IOException {
+        int scale = value.scale();
+        writeVarLong(out, ((scale << 1) ^ (scale >> 31)) & 0xFFFFFFFFL); // zig-zag, the scale may be negative
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        writeVarLong(out, unscaled.length);
+        out.write(unscaled);
+    }
+
+    private static BigDecimal readDecimal(DataInput in) throws IOException {
+        int zigZagScale = (int) readVarLong(in);
+        int scale = (zigZagScale >>> 1) ^ -(zigZagScale & 1);
+        byte[] unscaled = new byte[readLength(in)];
+        in.readFully(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+
+    private static int readLength(DataInput in) throws IOException {
+        long length = readVarLong(in);
+        if (length < 0 || length > Integer.MAX_VALUE - 8) {
+            throw new IOException("Invalid length: " + length);
+        }
+        return (int) length;
+    }
+}
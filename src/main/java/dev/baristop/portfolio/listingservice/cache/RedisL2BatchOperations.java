@@ -0,0 +1,101 @@
+package dev.baristop.portfolio.listingservice.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.util.ByteUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@link L2BatchOperations} for caches of a <code>RedisCacheManager</code>: reads with a single <code>MGET</code>,
+ * writes all entries in one pipeline (<code>SET ... PX ... NX</code>) and evicts with a single <code>DEL</code>, so a batch
+ * costs one round trip per operation regardless of its size.
+ * <p>
+ * Keys and values are encoded exactly like <code>RedisCache</code> does with the given configuration, so both access
+ * paths share the same entries.
+ */
+public class RedisL2BatchOperations implements L2BatchOperations {
+
+    private final RedisConnectionFactory connectionFactory;
+    private final RedisCacheConfiguration cacheConfiguration;
+
+    public RedisL2BatchOperations(RedisConnectionFactory connectionFactory, RedisCacheConfiguration cacheConfiguration) {
+        this.connectionFactory = connectionFactory;
+        this.cacheConfiguration = cacheConfiguration;
+    }
+
+    @Override
+    public List<Object> getAll(Cache l2, List<?> keys) {
+        byte[][] redisKeys = keys.stream()
+            .map(key -> redisKey(l2, key))
+            .toArray(byte[][]::new);
+
+        List<byte[]> values;
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            values = connection.stringCommands().mGet(redisKeys);
+        }
+
+        List<Object> result = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            byte[] value = values != null ? values.get(i) : null;
+            result.add(value != null ? cacheConfiguration.getValueSerializationPair().read(ByteBuffer.wrap(value)) : null);
+        }
+
+        return result;
+    }
+
+    @Override
+    public <K> Set<K> putAllIfAbsent(Cache l2, Map<K, CachedValue> entries) {
+        List<K> keys = new ArrayList<>(entries.keySet());
+        List<Object> results;
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.openPipeline();
+            for (K key : keys) {
+                CachedValue entry = entries.get(key);
+                connection.stringCommands().set(
+                    redisKey(l2, key),
+                    ByteUtils.getBytes(cacheConfiguration.getValueSerializationPair().write(entry)),
+                    Expiration.milliseconds(entry.timeToLive().toMillis()),
+                    SetOption.ifAbsent()
+                );
+            }
+            results = connection.closePipeline();
+        }
+
+        Set<K> stored = new HashSet<>();
+        for (int i = 0; i < keys.size(); i++) {
+            if (Boolean.TRUE.equals(results.get(i))) {
+                stored.add(keys.get(i));
+            }
+        }
+
+        return stored;
+    }
+
+    @Override
+    public void evictAll(Cache l2, List<?> keys) {
+        byte[][] redisKeys = keys.stream()
+            .map(key -> redisKey(l2, key))
+            .toArray(byte[][]::new);
+
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.keyCommands().del(redisKeys);
+        }
+    }
+
+    // same as RedisCache: prefixed key converted to a string
+    private byte[] redisKey(Cache l2, Object key) {
+        String redisKey = cacheConfiguration.getKeyPrefixFor(l2.getName()) + key;
+        return redisKey.getBytes(StandardCharsets.UTF_8);
+    }
+}
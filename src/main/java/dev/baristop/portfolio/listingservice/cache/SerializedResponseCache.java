@@ -0,0 +1,79 @@
+package dev.baristop.portfolio.listingservice.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.Nullable;
+import org.springframework.util.unit.DataSize;
+
+import java.util.function.Supplier;
+
+/**
+ * In-process cache of ready-to-write JSON response bodies (UTF-8 bytes), so that hot responses are serialized once
+ * per node instead of once per request.
+ * <p>
+ * Keys must identify a version of the value, e.g. an ETag: entries are never invalidated, a changed value gets a new
+ * key and the old entry is evicted by size eventually. Only representations that are the same for all users may be
+ * cached, per-user fields must be added by the caller.
+ * <p>
+ * Opt-in via <code>app.cache.serialized-responses.enabled</code>, bounded by
+ * <code>app.cache.serialized-responses.maximum-size</code> (total bytes). Exported as cache
+ * <code>serialized-responses</code>.
+ */
+public class SerializedResponseCache {
+
+    private final ObjectMapper objectMapper;
+    private final Cache<String, byte[]> cache;
+
+    /**
+     * @param objectMapper the object mapper used for HTTP responses, so cached bodies match regular ones
+     * @param maximumSize  the maximum total size of the cached bodies, or null to disable the cache
+     */
+    public SerializedResponseCache(
+        ObjectMapper objectMapper,
+        MeterRegistry meterRegistry,
+        @Nullable DataSize maximumSize
+    ) {
+        this.objectMapper = objectMapper;
+        this.cache = maximumSize == null ? null : Caffeine.newBuilder()
+            .maximumWeight(maximumSize.toBytes())
+            .weigher((String key, byte[] body) -> body.length)
+            .recordStats()
+            .build();
+
+        if (cache != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, "serialized-responses");
+        }
+    }
+
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    /**
+     * Returns the JSON representation of the value for the given key, serializing the value on the first request.
+     *
+     * @param key   identifies the value and its version
+     * @param value supplies the value on a cache miss
+     *
+     * @return the JSON bytes, shared between callers and therefore not to be modified
+     */
+    public byte[] get(String key, Supplier<?> value) {
+        if (cache == null) {
+            return serialize(value.get());
+        }
+
+        return cache.get(key, k -> serialize(value.get()));
+    }
+
+    private byte[] serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize response body", e);
+        }
+    }
+}
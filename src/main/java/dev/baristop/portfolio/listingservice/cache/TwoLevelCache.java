@@ -0,0 +1,381 @@
+package dev.baristop.portfolio.listingservice.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.cache.support.NullValue;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
+
+/**
+ * A cache with a local in-heap L1 (Caffeine) in front of a shared L2 (Redis).
+ * <p>
+ * Reads are served from L1 when possible and fall back to L2, populating L1 on the way.
+ * Writes and evictions go to both tiers and are broadcast via {@link CacheInvalidationPublisher},
+ * so other nodes drop their (now stale) L1 entry. L1 entries additionally expire after a short time,
+ * which bounds staleness should an invalidation message get lost.
+ * <p>
+ * L1 holds deserialized objects shared between callers, so cached values must not be modified.
+ * Keys are stored in their string form, like Redis does, so that invalidation messages can address them.
+ * <p>
+ * Loading via {@link #get(Object, Callable)} (<code>@Cacheable(sync = true)</code>) is protected against cache stampedes:
+ * <ul>
+ *   <li>single flight: concurrent misses for the same key on this node wait for one loader instead of each running it</li>
+ *   <li>probabilistic early refresh ("XFetch"): every hit refreshes the entry with a probability that grows as the
+ *   entry approaches its expiry, scaled by how long loading took. Usually one request refreshes a popular entry
+ *   shortly before it expires, so the entry never expires under load.</li>
+ * </ul>
+ * Entries are stored as {@link CachedValue}s to carry expiry and load time.
+ * <p>
+ * {@link #getAll} reads and writes many keys at once with a single multi-key L2 operation each (see
+ * {@link L2BatchOperations}) and loads all misses with a single loader call. It bypasses single flight and early refresh.
+ * Loaded values are only written for keys that are still missing, so a concurrent {@link #put} of a newer value is not
+ * overwritten; as they are new entries, no invalidation is published. An {@link #evict} that happens between the
+ * load and the write is not seen though, so such a value may be stale for up to the TTL, as with single-key loads.
+ * <p>
+ * Null values are cached with a separate, short TTL (negative caching): "not found" is cheap to cache, but a new value
+ * may appear at any time. Writers must evict or overwrite such entries when the value is created.
+ */
+@Slf4j
+public class TwoLevelCache extends AbstractValueAdaptingCache {
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> l1;
+    private final Cache l2;
+    private final L2BatchOperations l2BatchOperations;
+    private final CacheInvalidationPublisher invalidationPublisher;
+    private final Duration ttl;
+    private final Duration negativeTtl;
+    private final double earlyRefreshBeta;
+
+    // loads in progress on this node, by local key
+    private final Map<String, CompletableFuture<Object>> loading = new ConcurrentHashMap<>();
+
+    private final Counter l1Hits;
+    private final Counter l1Misses;
+    private final Counter l2Hits;
+    private final Counter l2Misses;
+    private final Counter missLoads;
+    private final Counter earlyRefreshLoads;
+
+    public TwoLevelCache(
+        String name,
+        com.github.benmanes.caffeine.cache.Cache<String, Object> l1,
+        Cache l2,
+        L2BatchOperations l2BatchOperations,
+        CacheInvalidationPublisher invalidationPublisher,
+        MeterRegistry meterRegistry,
+        Duration ttl,
+        Duration negativeTtl,
+        double earlyRefreshBeta
+    ) {
+        super(true);
+        this.name = name;
+        this.l1 = l1;
+        this.l2 = l2;
+        this.l2BatchOperations = l2BatchOperations;
+        this.invalidationPublisher = invalidationPublisher;
+        this.ttl = ttl;
+        this.negativeTtl = negativeTtl;
+        this.earlyRefreshBeta = earlyRefreshBeta;
+
+        this.l1Hits = counter(meterRegistry, name, "l1", "hit");
+        this.l1Misses = counter(meterRegistry, name, "l1", "miss");
+        this.l2Hits = counter(meterRegistry, name, "l2", "hit");
+        this.l2Misses = counter(meterRegistry, name, "l2", "miss");
+        this.missLoads = loadCounter(meterRegistry, name, "miss");
+        this.earlyRefreshLoads = loadCounter(meterRegistry, name, "early_refresh");
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return l2.getNativeCache();
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        CachedValue entry = lookupEntry(key);
+        return entry != null ? entry.value() : null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        CachedValue entry = lookupEntry(key);
+        if (entry == null) {
+            return (T) fromStoreValue(load(key, valueLoader, missLoads));
+        }
+
+        if (shouldRefreshEarly(entry)) {
+            try {
+                return (T) fromStoreValue(load(key, valueLoader, earlyRefreshLoads));
+            } catch (ValueRetrievalException e) {
+                // the entry is still valid, a failed refresh is retried by a later hit
+                log.debug("Early refresh of cache={} key={} failed", name, key, e);
+            }
+        }
+
+        return (T) fromStoreValue(entry.value());
+    }
+
+    /**
+     * Returns the cached values for all keys, loading the missing ones with a single call of the loader.
+     * Keys the loader returns no value for are cached as null (negative caching).
+     *
+     * @param keys   the keys to look up
+     * @param loader loads the values of the given (missing) keys
+     *
+     * @return the non-null values by key, in the order of the keys
+     */
+    public <K, V> Map<K, V> getAll(Collection<K> keys, Function<Set<K>, Map<K, V>> loader) {
+        Map<K, V> result = new HashMap<>();
+
+        List<K> l1MissingKeys = new ArrayList<>();
+        for (K key : keys) {
+            CachedValue entry = freshL1Entry(localKey(key));
+            if (entry != null) {
+                l1Hits.increment();
+                addValue(result, key, entry);
+            } else {
+                l1Misses.increment();
+                l1MissingKeys.add(key);
+            }
+        }
+        if (l1MissingKeys.isEmpty()) {
+            return inKeyOrder(keys, result);
+        }
+
+        Set<K> missingKeys = new LinkedHashSet<>();
+        List<Object> l2Values = l2BatchOperations.getAll(l2, l1MissingKeys);
+        for (int i = 0; i < l1MissingKeys.size(); i++) {
+            K key = l1MissingKeys.get(i);
+            if (!(l2Values.get(i) instanceof CachedValue entry)) {
+                l2Misses.increment();
+                missingKeys.add(key);
+                continue;
+            }
+            l2Hits.increment();
+            l1.put(localKey(key), entry);
+            addValue(result, key, entry);
+        }
+        if (missingKeys.isEmpty()) {
+            return inKeyOrder(keys, result);
+        }
+
+        long start = System.nanoTime();
+        Map<K, V> loaded = loader.apply(missingKeys);
+        missLoads.increment(missingKeys.size());
+        long loadMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+        Map<K, CachedValue> entries = new LinkedHashMap<>();
+        for (K key : missingKeys) {
+            Object storeValue = toStoreValue(loaded.get(key));
+            CachedValue entry = new CachedValue(storeValue, expiresAt(storeValue), loadMillis);
+            entries.put(key, entry);
+            addValue(result, key, entry);
+        }
+        // a value written meanwhile (e.g. by a concurrent put) is more recent than the loaded one, so it wins
+        for (K key : l2BatchOperations.putAllIfAbsent(l2, entries)) {
+            l1.asMap().putIfAbsent(localKey(key), entries.get(key));
+        }
+
+        return inKeyOrder(keys, result);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        Object storeValue = toStoreValue(value);
+        CachedValue entry = new CachedValue(storeValue, expiresAt(storeValue), 0);
+        l2.put(key, entry);
+        l1.put(localKey(key), entry);
+        invalidationPublisher.publish(name, localKey(key));
+    }
+
+    @Override
+    public void evict(Object key) {
+        l2.evict(key);
+        l1.invalidate(localKey(key));
+        invalidationPublisher.publish(name, localKey(key));
+    }
+
+    /**
+     * Evicts many keys at once with a single multi-key L2 operation, broadcasting the invalidations in one pipeline.
+     */
+    public void evictAll(Collection<?> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        List<String> localKeys = keys.stream().map(TwoLevelCache::localKey).toList();
+        l2BatchOperations.evictAll(l2, List.copyOf(keys));
+        l1.invalidateAll(localKeys);
+        invalidationPublisher.publishAll(name, localKeys);
+    }
+
+    @Override
+    public void clear() {
+        l2.clear();
+        l1.invalidateAll();
+        invalidationPublisher.publish(name, null);
+    }
+
+    /**
+     * Drops the local copy after another node changed the entry, or all local entries if the key is null.
+     */
+    void invalidateLocal(String key) {
+        if (key == null) {
+            l1.invalidateAll();
+        } else {
+            l1.invalidate(key);
+        }
+    }
+
+    private CachedValue lookupEntry(Object key) {
+        String localKey = localKey(key);
+
+        CachedValue l1Entry = freshL1Entry(localKey);
+        if (l1Entry != null) {
+            l1Hits.increment();
+            return l1Entry;
+        }
+        l1Misses.increment();
+
+        ValueWrapper wrapper = l2.get(key);
+        if (wrapper == null) {
+            l2Misses.increment();
+            return null;
+        }
+        l2Hits.increment();
+
+        // entries written before the CachedValue envelope have no expiry information and are never refreshed early
+        CachedValue entry = wrapper.get() instanceof CachedValue cachedValue
+            ? cachedValue
+            : new CachedValue(toStoreValue(wrapper.get()), Long.MAX_VALUE, 0);
+        l1.put(localKey, entry);
+
+        return entry;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <K, V> void addValue(Map<K, V> result, K key, CachedValue entry) {
+        Object value = fromStoreValue(entry.value());
+        if (value != null) {
+            result.put(key, (V) value);
+        }
+    }
+
+    // values are collected per tier, the result is expected in the order of the keys
+    private static <K, V> Map<K, V> inKeyOrder(Collection<K> keys, Map<K, V> values) {
+        Map<K, V> ordered = new LinkedHashMap<>();
+        for (K key : keys) {
+            V value = values.get(key);
+            if (value != null) {
+                ordered.put(key, value);
+            }
+        }
+
+        return ordered;
+    }
+
+    // the L1 entry may have been copied from L2 shortly before the L2 entry expired
+    private CachedValue freshL1Entry(String localKey) {
+        return l1.getIfPresent(localKey) instanceof CachedValue entry && entry.expiresAt() > System.currentTimeMillis()
+            ? entry
+            : null;
+    }
+
+    // XFetch: refresh if now - loadTime * beta * ln(random) >= expiry
+    private boolean shouldRefreshEarly(CachedValue entry) {
+        if (entry.loadMillis() <= 0 || earlyRefreshBeta <= 0) {
+            return false;
+        }
+
+        double gap = -entry.loadMillis() * earlyRefreshBeta * Math.log(ThreadLocalRandom.current().nextDouble());
+        return System.currentTimeMillis() + gap >= entry.expiresAt();
+    }
+
+    // single flight: the first caller loads, concurrent callers for the same key wait for its result
+    private Object load(Object key, Callable<?> valueLoader, Counter loads) {
+        String localKey = localKey(key);
+
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = loading.putIfAbsent(localKey, flight);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException | CancellationException e) {
+                // the result may depend on the caller (e.g. visibility checks), so a failure is not shared
+                return loadAndStore(key, valueLoader, loads);
+            }
+        }
+
+        try {
+            // another flight may have completed between the lookup and this one
+            CachedValue loaded = loads == missLoads ? freshL1Entry(localKey) : null;
+            Object storeValue = loaded != null ? loaded.value() : loadAndStore(key, valueLoader, loads);
+            flight.complete(storeValue);
+
+            return storeValue;
+        } catch (RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(localKey, flight);
+        }
+    }
+
+    private Object loadAndStore(Object key, Callable<?> valueLoader, Counter loads) {
+        long start = System.nanoTime();
+        Object value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        loads.increment();
+
+        long loadMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        Object storeValue = toStoreValue(value);
+        CachedValue entry = new CachedValue(storeValue, expiresAt(storeValue), loadMillis);
+        l2.put(key, entry);
+        l1.put(localKey(key), entry);
+
+        return entry.value();
+    }
+
+    private long expiresAt(Object storeValue) {
+        Duration timeToLive = storeValue == NullValue.INSTANCE ? negativeTtl : ttl;
+        return System.currentTimeMillis() + timeToLive.toMillis();
+    }
+
+    private static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String cacheName, String tier, String result) {
+        return Counter.builder("cache.tier.gets")
+            .description("Cache lookups per tier, hit ratio = hit / (hit + miss)")
+            .tag("cache", cacheName)
+            .tag("tier", tier)
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    private static Counter loadCounter(MeterRegistry meterRegistry, String cacheName, String reason) {
+        return Counter.builder("cache.loads")
+            .description("Values loaded by the cache, either after a miss or as early refresh")
+            .tag("cache", cacheName)
+            .tag("reason", reason)
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,105 @@
+package dev.baristop.portfolio.listingservice.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link CacheManager} creating a {@link TwoLevelCache} per cache name on top of a shared (Redis) cache manager.
+ * <p>
+ * Also listens for {@link CacheInvalidationMessage}s of other nodes and drops the affected L1 entries.
+ */
+@Slf4j
+public class TwoLevelCacheManager implements CacheManager, MessageListener {
+
+    private final CacheManager l2CacheManager;
+    private final L2BatchOperations l2BatchOperations;
+    private final CacheInvalidationPublisher invalidationPublisher;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+    private final String nodeId;
+    private final TwoLevelCacheSettings settings;
+
+    private final Map<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(
+        CacheManager l2CacheManager,
+        L2BatchOperations l2BatchOperations,
+        CacheInvalidationPublisher invalidationPublisher,
+        MeterRegistry meterRegistry,
+        ObjectMapper objectMapper,
+        String nodeId,
+        TwoLevelCacheSettings settings
+    ) {
+        this.l2CacheManager = l2CacheManager;
+        this.l2BatchOperations = l2BatchOperations;
+        this.invalidationPublisher = invalidationPublisher;
+        this.meterRegistry = meterRegistry;
+        this.objectMapper = objectMapper;
+        this.nodeId = nodeId;
+        this.settings = settings;
+    }
+
+    @Override
+    public TwoLevelCache getCache(String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return l2CacheManager.getCacheNames();
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        CacheInvalidationMessage invalidation;
+        try {
+            invalidation = objectMapper.readValue(message.getBody(), CacheInvalidationMessage.class);
+        } catch (IOException e) {
+            log.warn("Ignoring malformed cache invalidation message", e);
+            return;
+        }
+
+        // own changes are already applied locally
+        if (nodeId.equals(invalidation.origin())) {
+            return;
+        }
+
+        TwoLevelCache cache = caches.get(invalidation.cacheName());
+        if (cache != null) {
+            cache.invalidateLocal(invalidation.key());
+        }
+    }
+
+    private TwoLevelCache createCache(String name) {
+        Cache l2 = l2CacheManager.getCache(name);
+        if (l2 == null) {
+            throw new IllegalStateException("No L2 cache configured for: " + name);
+        }
+
+        return new TwoLevelCache(
+            name,
+            Caffeine.newBuilder()
+                .maximumSize(settings.l1MaximumSize())
+                .expireAfterWrite(settings.l1ExpireAfterWrite())
+                .build(),
+            l2,
+            l2BatchOperations,
+            invalidationPublisher,
+            meterRegistry,
+            settings.ttl(),
+            settings.negativeTtl(),
+            settings.earlyRefreshBeta()
+        );
+    }
+}
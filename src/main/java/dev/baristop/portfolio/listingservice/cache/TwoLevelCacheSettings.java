@@ -0,0 +1,21 @@
+package dev.baristop.portfolio.listingservice.cache;
+
+import java.time.Duration;
+
+/**
+ * Settings shared by all caches of a {@link TwoLevelCacheManager}.
+ *
+ * @param l1MaximumSize      maximum number of entries per cache in the local L1
+ * @param l1ExpireAfterWrite time after which local L1 entries expire, bounds staleness if an invalidation gets lost
+ * @param ttl                time to live of the shared L2 entries
+ * @param negativeTtl        time to live of cached null values ("not found"), usually much shorter than the ttl
+ * @param earlyRefreshBeta   eagerness of the probabilistic early refresh, 0 disables it (1 is the usual default)
+ */
+public record TwoLevelCacheSettings(
+    long l1MaximumSize,
+    Duration l1ExpireAfterWrite,
+    Duration ttl,
+    Duration negativeTtl,
+    double earlyRefreshBeta
+) {
+}
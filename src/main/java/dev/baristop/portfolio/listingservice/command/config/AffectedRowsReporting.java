@@ -0,0 +1,13 @@
+package dev.baristop.portfolio.listingservice.command.config;
+
+/**
+ * Implemented by commands that change rows, so the {@link dev.baristop.portfolio.listingservice.command.scheduler.JobScheduler}
+ * can export the number as a metric.
+ */
+public interface AffectedRowsReporting {
+
+    /**
+     * @return the number of rows changed by the last run
+     */
+    int getAffectedRows();
+}
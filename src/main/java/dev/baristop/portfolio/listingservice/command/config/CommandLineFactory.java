@@ -0,0 +1,82 @@
+package dev.baristop.portfolio.listingservice.command.config;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+import picocli.CommandLine;
+
+import java.util.Map;
+
+/**
+ * Creates the picocli {@link CommandLine} of all command beans, used by {@link PicocliCronLauncher} and the
+ * {@link dev.baristop.portfolio.listingservice.command.scheduler.JobScheduler}.
+ * <p>
+ * Each command runs under a {@link JobLock} named after the command, so a command never runs twice at the same time
+ * in the cluster, no matter whether it was started by cron or by the scheduler. A run that finds the lock taken is
+ * skipped with {@link #SKIPPED_EXIT_CODE}.
+ * <p>
+ * picocli stores the parsed options in the fields of the command, so the command beans are prototypes and every
+ * {@link #create()} gets new instances of them: a command line is meant for a single run, and neither options left over
+ * from an earlier run nor the parsing of a concurrent one (which happens before the lock is taken) can reach a command
+ * that is running.
+ */
+@Component
+@Slf4j
+@AllArgsConstructor
+public class CommandLineFactory {
+
+    // EX_TEMPFAIL of sysexits.h: not run, try again later
+    public static final int SKIPPED_EXIT_CODE = 75;
+
+    private final CommandLine.IFactory factory;
+    private final RootCommand rootCommand;
+    private final ApplicationContext context; // access to all Spring Beans
+    private final JobLock jobLock;
+
+    public CommandLine create() {
+        CommandLine cmd = new CommandLine(rootCommand, factory);
+
+        // Register command beans found in the Spring context (including proxy-handling),
+        // the commands are prototypes, so they are created anew for this command line
+        Map<String, Runnable> commandBeans = context.getBeansOfType(Runnable.class);
+        for (Runnable bean : commandBeans.values()) {
+            Class<?> targetClass = bean.getClass();
+
+            // Unwrap the Spring AOP/CGLIB proxy to access the actual class.
+            // Proxies generated by Spring often contain '$$' in their class name., e.g. when @Transactional is used
+            if (targetClass.getName().contains("$$")) {
+                targetClass = targetClass.getSuperclass();
+            }
+
+            // Check if the unwrapped class is a Picocli command and not the RootCommand itself.
+            // The @SuppressWarnings is used because 'bean' (Runnable) and 'targetClass'
+            // (the class type) are not directly comparable types.
+            // noinspection EqualsBetweenInconvertibleTypes
+            if (targetClass.isAnnotationPresent(CommandLine.Command.class) && bean != rootCommand) {
+                CommandLine.Command annotation = targetClass.getAnnotation(CommandLine.Command.class);
+                cmd.addSubcommand(annotation.name(), bean);
+            }
+        }
+
+        cmd.setExecutionExceptionHandler((ex, commandLine, parseResult) -> {
+            log.error("Command failed: {}", ex.getMessage(), ex);
+            return 1;
+        });
+
+        cmd.setExecutionStrategy(parseResult -> {
+            if (!parseResult.hasSubcommand()) {
+                return new CommandLine.RunLast().execute(parseResult);
+            }
+
+            String jobName = parseResult.subcommand().commandSpec().name();
+            return jobLock.callExclusively(jobName, () -> new CommandLine.RunLast().execute(parseResult))
+                .orElseGet(() -> {
+                    log.warn("Skipped {}, it is already running", jobName);
+                    return SKIPPED_EXIT_CODE;
+                });
+        });
+
+        return cmd;
+    }
+}
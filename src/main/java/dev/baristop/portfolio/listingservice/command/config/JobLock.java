@@ -0,0 +1,57 @@
+package dev.baristop.portfolio.listingservice.command.config;
+
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Cluster-wide mutual exclusion of jobs with PostgreSQL session-level advisory locks (PostgreSQL only).
+ * <p>
+ * The lock is held on a dedicated connection for the whole run, since jobs commit in several transactions of their
+ * own. If the process dies, the connection closes and PostgreSQL releases the lock.
+ */
+@Component
+@AllArgsConstructor
+public class JobLock {
+
+    private static final String KEY_PREFIX = "listing-service:job:";
+
+    private final DataSource dataSource;
+
+    /**
+     * Runs the job unless it is already running, on this or any other node.
+     *
+     * @return the result of the job, or empty if the lock is held elsewhere
+     */
+    public <T> Optional<T> callExclusively(String jobName, Supplier<T> job) {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!advisoryLock(connection, "SELECT pg_try_advisory_lock(hashtext(?))", jobName)) {
+                return Optional.empty();
+            }
+
+            try {
+                return Optional.ofNullable(job.get());
+            } finally {
+                advisoryLock(connection, "SELECT pg_advisory_unlock(hashtext(?))", jobName);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not lock job " + jobName, e);
+        }
+    }
+
+    private static boolean advisoryLock(Connection connection, String sql, String jobName) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, KEY_PREFIX + jobName);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getBoolean(1);
+            }
+        }
+    }
+}
@@ -4,24 +4,20 @@ import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
-import org.springframework.context.ApplicationContext;
 import org.springframework.stereotype.Component;
 import picocli.CommandLine;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 
 @Component
 @Slf4j
 @AllArgsConstructor
 public class PicocliCronLauncher implements ApplicationRunner {
 
-    private final CommandLine.IFactory factory;
-    private final RootCommand rootCommand;
+    private final CommandLineFactory commandLineFactory;
     private final ApplicationArguments args;
-    private final ApplicationContext context; // access to all Spring Beans
 
     @Override
     public void run(ApplicationArguments args0) {
@@ -35,33 +31,7 @@ public class PicocliCronLauncher implements ApplicationRunner {
         String[] cliArgs = cliArgsList.toArray(new String[0]);
         log.info("Starting CLI job with args: {}", Arrays.toString(cliArgs));
 
-        CommandLine cmd = new CommandLine(rootCommand, factory);
-
-        // Register command beans found in the Spring context (including proxy-handling)
-        Map<String, Runnable> commandBeans = context.getBeansOfType(Runnable.class);
-        for (Runnable bean : commandBeans.values()) {
-            Class<?> targetClass = bean.getClass();
-
-            // Unwrap the Spring AOP/CGLIB proxy to access the actual class.
-            // Proxies generated by Spring often contain '$$' in their class name., e.g. when @Transactional is used
-            if (targetClass.getName().contains("$$")) {
-                targetClass = targetClass.getSuperclass();
-            }
-
-            // Check if the unwrapped class is a Picocli command and not the RootCommand itself.
-            // The @SuppressWarnings is used because 'bean' (Runnable) and 'targetClass'
-            // (the class type) are not directly comparable types.
-            // noinspection EqualsBetweenInconvertibleTypes
-            if (targetClass.isAnnotationPresent(CommandLine.Command.class) && bean != rootCommand) {
-                CommandLine.Command annotation = targetClass.getAnnotation(CommandLine.Command.class);
-                cmd.addSubcommand(annotation.name(), bean);
-            }
-        }
-
-        cmd.setExecutionExceptionHandler((ex, commandLine, parseResult) -> {
-            log.error("Command failed: {}", ex.getMessage(), ex);
-            return 1;
-        });
+        CommandLine cmd = commandLineFactory.create();
 
         int exitCode = cmd.execute(cliArgs);
         System.exit(exitCode);
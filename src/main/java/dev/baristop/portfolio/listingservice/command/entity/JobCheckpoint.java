@@ -0,0 +1,49 @@
+package dev.baristop.portfolio.listingservice.command.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * The last ID processed by a chunked job, so that a killed run resumes where it stopped. Only a run with the same
+ * threshold may resume, a run with another one has to start over.
+ */
+@Entity
+@Table(name = "job_checkpoints")
+@Getter
+@Setter
+@NoArgsConstructor
+public class JobCheckpoint {
+
+    @Id
+    private String jobName;
+
+    @Column(nullable = false)
+    private Long lastId;
+
+    // the threshold the IDs were selected by
+    private Instant threshold;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+
+    public JobCheckpoint(String jobName, Long lastId, Instant threshold) {
+        this.jobName = jobName;
+        this.lastId = lastId;
+        this.threshold = threshold;
+        this.updatedAt = Instant.now();
+    }
+
+    @Override
+    public String toString() {
+        return "JobCheckpoint{" +
+            "jobName='" + jobName + '\'' +
+            ", lastId=" + lastId +
+            ", threshold=" + threshold +
+            ", updatedAt=" + updatedAt +
+            '}';
+    }
+}
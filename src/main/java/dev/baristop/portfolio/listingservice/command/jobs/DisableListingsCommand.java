@@ -1,23 +1,32 @@
 package dev.baristop.portfolio.listingservice.command.jobs;
 
-import dev.baristop.portfolio.listingservice.listing.service.ListingService;
+import dev.baristop.portfolio.listingservice.command.config.AffectedRowsReporting;
+import dev.baristop.portfolio.listingservice.listing.service.ListingExpiryService;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Model.CommandSpec;
 import picocli.CommandLine.Option;
+import picocli.CommandLine.ParameterException;
+import picocli.CommandLine.Spec;
 
 @Component
+@Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE) // picocli sets the options on the instance, see CommandLineFactory
 @Command(
     name = "listings:disable",
     description = "Disables expired listings"
 )
 @RequiredArgsConstructor
 @Slf4j
-public class DisableListingsCommand implements Runnable {
+public class DisableListingsCommand implements Runnable, AffectedRowsReporting {
 
-    private final ListingService listingService;
+    private final ListingExpiryService listingExpiryService;
     public static final String OLDER_THAN_DEFAULT = "14";
+    public static final String CHUNK_SIZE_DEFAULT = "1000";
 
     @Option(
         names = {"--older-than"},
@@ -26,10 +35,31 @@ public class DisableListingsCommand implements Runnable {
     )
     private int olderThanDays;
 
+    private int chunkSize;
+
+    @Spec
+    private CommandSpec spec;
+
+    @Getter
+    private volatile int affectedRows;
+
+    // validated while parsing, so an invalid value fails with a usage error before the job starts
+    @Option(
+        names = {"--chunk-size"},
+        description = "Number of listings disabled per transaction",
+        defaultValue = CHUNK_SIZE_DEFAULT
+    )
+    void setChunkSize(int chunkSize) {
+        if (chunkSize < 1) {
+            throw new ParameterException(spec.commandLine(), "--chunk-size must be at least 1, but was " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+    }
+
     @Override
     public void run() {
         log.info("Starting DisableListingsCommand for listings older than {} days", olderThanDays);
-        int affected = listingService.disableListingsOlderThanDays(olderThanDays);
-        log.info("Disabled {} listings", affected);
+        affectedRows = listingExpiryService.disableListingsOlderThanDays(olderThanDays, chunkSize);
+        log.info("Disabled {} listings", affectedRows);
     }
 }
@@ -0,0 +1,78 @@
+package dev.baristop.portfolio.listingservice.command.jobs;
+
+import dev.baristop.portfolio.listingservice.listing.dto.ListingQueryRequestDto;
+import dev.baristop.portfolio.listingservice.listing.entity.ListingStatus;
+import dev.baristop.portfolio.listingservice.listing.service.ListingExportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.context.annotation.Scope;
+import org.springframework.stereotype.Component;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Parameters;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+@Component
+@Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE) // picocli sets the options on the instance, see CommandLineFactory
+@Command(
+    name = "listings:export",
+    description = "Exports listings as NDJSON file"
+)
+@RequiredArgsConstructor
+@Slf4j
+public class ExportListingsCommand implements Runnable {
+
+    private final ListingExportService listingExportService;
+
+    @Parameters(
+        index = "0",
+        description = "Output file, gzip-compressed if it ends with .gz"
+    )
+    private Path file;
+
+    @Option(names = {"--status"}, description = "Filter by status (${COMPLETION-CANDIDATES})")
+    private ListingStatus status;
+
+    @Option(names = {"--q"}, description = "Full-text search over title, description and city")
+    private String q;
+
+    @Option(names = {"--title"}, description = "Filter by title")
+    private String title;
+
+    @Option(names = {"--city"}, description = "Filter by city")
+    private String city;
+
+    @Option(names = {"--price-from"}, description = "Filter by price from")
+    private BigDecimal priceFrom;
+
+    @Option(names = {"--price-to"}, description = "Filter by price to")
+    private BigDecimal priceTo;
+
+    @Override
+    public void run() {
+        ListingQueryRequestDto filters = new ListingQueryRequestDto();
+        filters.setStatus(status);
+        filters.setQ(q);
+        filters.setTitle(title);
+        filters.setCity(city);
+        filters.setPriceFrom(priceFrom);
+        filters.setPriceTo(priceTo);
+
+        boolean gzip = file.getFileName().toString().endsWith(".gz");
+        log.info("Starting ExportListingsCommand to {} with filters {}", file, filters);
+
+        try (OutputStream out = Files.newOutputStream(file)) {
+            long exported = listingExportService.exportListings(filters, out, gzip);
+            log.info("Exported {} listings", exported);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write " + file, e);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package dev.baristop.portfolio.listingservice.command.jobs;
+
+import dev.baristop.portfolio.listingservice.command.config.AffectedRowsReporting;
+import dev.baristop.portfolio.listingservice.listing.dto.ListingImportFormat;
+import dev.baristop.portfolio.listingservice.listing.dto.ListingImportResult;
+import dev.baristop.portfolio.listingservice.listing.service.ListingImportService;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.context.annotation.Scope;
+import org.springframework.stereotype.Component;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Parameters;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+@Component
+@Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE) // picocli sets the options on the instance, see CommandLineFactory
+@Command(
+    name = "listings:import",
+    description = "Imports listings from a CSV or NDJSON file"
+)
+@RequiredArgsConstructor
+@Slf4j
+public class ImportListingsCommand implements Runnable, AffectedRowsReporting {
+
+    private final ListingImportService listingImportService;
+
+    @Parameters(
+        index = "0",
+        description = "CSV file with header row, or NDJSON file (.ndjson, .jsonl)"
+    )
+    private Path file;
+
+    @Option(
+        names = {"--format"},
+        description = "Input format (${COMPLETION-CANDIDATES}), detected by file extension if omitted"
+    )
+    private ListingImportFormat format;
+
+    @Getter
+    private volatile int affectedRows;
+
+    @Override
+    public void run() {
+        ListingImportFormat inputFormat = format != null ? format : ListingImportFormat.of(file);
+        log.info("Starting ImportListingsCommand for {} ({})", file, inputFormat);
+
+        try (BufferedReader input = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            ListingImportResult result = listingImportService.importListings(input, inputFormat);
+            affectedRows = (int) Math.min(result.imported(), Integer.MAX_VALUE);
+            log.info("Imported {} listings, skipped {}", result.imported(), result.skipped());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + file, e);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package dev.baristop.portfolio.listingservice.command.repository;
+
+import dev.baristop.portfolio.listingservice.command.entity.JobCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface JobCheckpointRepository extends JpaRepository<JobCheckpoint, String> {
+}
@@ -0,0 +1,134 @@
+package dev.baristop.portfolio.listingservice.command.scheduler;
+
+import dev.baristop.portfolio.listingservice.command.config.AffectedRowsReporting;
+import dev.baristop.portfolio.listingservice.command.config.CommandLineFactory;
+import dev.baristop.portfolio.listingservice.command.scheduler.JobSchedulerProperties.ScheduledJob;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.SimpleAsyncTaskScheduler;
+import org.springframework.scheduling.support.CronTrigger;
+import org.springframework.stereotype.Component;
+import picocli.CommandLine;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs picocli commands in-process on a cron schedule, as an alternative to an external cron starting the CLI.
+ * Opt-in with <code>app.jobs.scheduler.enabled=true</code>, the jobs are configured in {@link JobSchedulerProperties}.
+ * <p>
+ * Jobs run the same way as from the CLI, including the {@link dev.baristop.portfolio.listingservice.command.config.JobLock}:
+ * when several instances are scheduled, only one of them runs a job at a time, the others skip it.
+ * Jobs run on virtual threads, separate from the request threads, and at most
+ * <code>app.jobs.scheduler.max-concurrency</code> of them at the same time on this node.
+ * <p>
+ * Metrics, by job:
+ * <ul>
+ *   <li><code>jobs.runs</code>: duration of the runs, by result (<code>success</code>, <code>failure</code>,
+ *   <code>skipped</code> when running on another node)</li>
+ *   <li><code>jobs.last.success</code>: time of the last successful run, in seconds since the epoch</li>
+ *   <li><code>jobs.last.affected.rows</code>: rows changed by the last successful run, for commands reporting them</li>
+ * </ul>
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "app.jobs.scheduler.enabled", havingValue = "true")
+@EnableConfigurationProperties(JobSchedulerProperties.class)
+public class JobScheduler {
+
+    private static final Duration TERMINATION_TIMEOUT = Duration.ofSeconds(30);
+
+    private final CommandLineFactory commandLineFactory;
+    private final MeterRegistry meterRegistry;
+    private final JobSchedulerProperties properties;
+    private final SimpleAsyncTaskScheduler scheduler;
+
+    private final Map<String, AtomicLong> lastSuccess = new HashMap<>();
+    private final Map<String, AtomicLong> lastAffectedRows = new HashMap<>();
+
+    public JobScheduler(
+        CommandLineFactory commandLineFactory,
+        MeterRegistry meterRegistry,
+        JobSchedulerProperties properties
+    ) {
+        this.commandLineFactory = commandLineFactory;
+        this.meterRegistry = meterRegistry;
+        this.properties = properties;
+
+        this.scheduler = new SimpleAsyncTaskScheduler();
+        scheduler.setVirtualThreads(true);
+        scheduler.setThreadNamePrefix("job-");
+        scheduler.setConcurrencyLimit(properties.maxConcurrency());
+        scheduler.setTaskTerminationTimeout(TERMINATION_TIMEOUT.toMillis());
+
+        CommandLine commandLine = commandLineFactory.create();
+        for (ScheduledJob job : properties.jobs()) {
+            if (!commandLine.getSubcommands().containsKey(job.name())) {
+                throw new IllegalStateException("Unknown command of scheduled job: " + job.command());
+            }
+
+            AtomicLong success = lastSuccess.computeIfAbsent(job.name(), name -> new AtomicLong());
+            AtomicLong affectedRows = lastAffectedRows.computeIfAbsent(job.name(), name -> new AtomicLong());
+            Gauge.builder("jobs.last.success", success, AtomicLong::get)
+                .tag("job", job.name()).baseUnit("seconds").register(meterRegistry);
+            Gauge.builder("jobs.last.affected.rows", affectedRows, AtomicLong::get)
+                .tag("job", job.name()).register(meterRegistry);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        for (ScheduledJob job : properties.jobs()) {
+            scheduler.schedule(() -> run(job), new CronTrigger(job.cron()));
+            log.info("Scheduled job '{}' at '{}'", job.command(), job.cron());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.close();
+    }
+
+    /**
+     * Runs the job once, returns the picocli exit code.
+     */
+    int run(ScheduledJob job) {
+        CommandLine commandLine = commandLineFactory.create();
+
+        long start = System.nanoTime();
+        int exitCode = commandLine.execute(job.args());
+        long duration = System.nanoTime() - start;
+
+        String result = switch (exitCode) {
+            case CommandLine.ExitCode.OK -> "success";
+            case CommandLineFactory.SKIPPED_EXIT_CODE -> "skipped";
+            default -> "failure";
+        };
+        Timer.builder("jobs.runs")
+            .tag("job", job.name())
+            .tag("result", result)
+            .register(meterRegistry)
+            .record(duration, TimeUnit.NANOSECONDS);
+
+        if (exitCode == CommandLine.ExitCode.OK) {
+            lastSuccess.get(job.name()).set(Instant.now().getEpochSecond());
+            if (commandLine.getSubcommands().get(job.name()).getCommand() instanceof AffectedRowsReporting command) {
+                lastAffectedRows.get(job.name()).set(command.getAffectedRows());
+            }
+        }
+        log.info("Job '{}' finished with {} in {} ms", job.command(), result, TimeUnit.NANOSECONDS.toMillis(duration));
+
+        return exitCode;
+    }
+}
@@ -0,0 +1,34 @@
+package dev.baristop.portfolio.listingservice.command.scheduler;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+/**
+ * Settings of the {@link JobScheduler}, bound from <code>app.jobs.scheduler</code>.
+ *
+ * @param maxConcurrency jobs running at the same time on this node, further due jobs wait for a free slot
+ * @param jobs           the picocli commands to run
+ */
+@ConfigurationProperties("app.jobs.scheduler")
+public record JobSchedulerProperties(
+    @DefaultValue("1") int maxConcurrency,
+    @DefaultValue List<ScheduledJob> jobs
+) {
+
+    /**
+     * @param command the command line, as passed to the CLI, e.g. <code>listings:disable --older-than 14</code>
+     * @param cron    Spring cron expression with seconds, e.g. <code>0 0 3 * * *</code>
+     */
+    public record ScheduledJob(String command, String cron) {
+
+        public String[] args() {
+            return command.trim().split("\\s+");
+        }
+
+        public String name() {
+            return args()[0];
+        }
+    }
+}
@@ -4,26 +4,170 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import org.springframework.cache.CacheManager;
+import dev.baristop.portfolio.listingservice.cache.CacheInvalidationPublisher;
+import dev.baristop.portfolio.listingservice.cache.CacheValueCodec;
+import dev.baristop.portfolio.listingservice.cache.CachedValue;
+import dev.baristop.portfolio.listingservice.cache.CodecRedisSerializer;
+import dev.baristop.portfolio.listingservice.cache.RedisL2BatchOperations;
+import dev.baristop.portfolio.listingservice.cache.SerializedResponseCache;
+import dev.baristop.portfolio.listingservice.cache.TwoLevelCacheManager;
+import dev.baristop.portfolio.listingservice.cache.TwoLevelCacheSettings;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.util.unit.DataSize;
 
 import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
 
 @Configuration
 @EnableCaching
 public class CacheConfig {
 
     /**
-     * Configures Redis as the caching provider for the application.
-     * This CacheManager setup handles:
+     * Prefix of all Redis cache keys, versioning the format of the cached values.
+     * <p>
+     * Must be changed whenever the stored format changes in a way the previous release cannot read (or the other way
+     * round), so that old and new nodes use disjoint keys during a rolling deploy instead of failing on each other's
+     * entries. Entries under the previous prefix are no longer read and expire with their TTL.
+     * <ul>
+     *   <li>v2: binary listing format (previously JSON)</li>
+     *   <li>v3: listings cached as {@link dev.baristop.portfolio.listingservice.listing.dto.CachedListing}
+     *   (previously {@link dev.baristop.portfolio.listingservice.listing.dto.ListingDto})</li>
+     * </ul>
+     */
+    public static final String KEY_PREFIX = "v3:";
+
+    // identifies this instance in cache invalidation messages
+    private final String nodeId = UUID.randomUUID().toString();
+
+    /**
+     * Configures a two-level cache: a bounded in-heap L1 per node in front of Redis as shared L2.
+     * <p>
+     * Hot entries are served without a network round trip and deserialization. Changes are broadcast via Redis pub/sub,
+     * so other nodes drop stale L1 entries; <code>app.cache.l1.expire-after-write</code> bounds the staleness if a
+     * message gets lost. Lookups per tier are exported as <code>cache.tier.gets</code>.
+     * <p>
+     * Synchronized loads (<code>@Cacheable(sync = true)</code>) run once per key and node, and popular entries are
+     * refreshed probabilistically before they expire (<code>app.cache.early-refresh-beta</code>, 0 disables it).
+     * Loads are exported as <code>cache.loads</code>. Null values ("not found") are cached for
+     * <code>app.cache.negative-ttl</code> only.
+     *
+     * @param connectionFactory Redis connection factory injected by Spring
+     * @param codecs            binary codecs for cached value types, other values are stored as JSON
+     *
+     * @return configured CacheManager
+     */
+    @Bean
+    public TwoLevelCacheManager cacheManager(
+        RedisConnectionFactory connectionFactory,
+        StringRedisTemplate stringRedisTemplate,
+        MeterRegistry meterRegistry,
+        List<CacheValueCodec<?>> codecs,
+        @Value("${app.cache.l1.maximum-size:10000}") long l1MaximumSize,
+        @Value("${app.cache.l1.expire-after-write:PT1M}") Duration l1ExpireAfterWrite,
+        @Value("${app.cache.ttl:PT10M}") Duration ttl,
+        @Value("${app.cache.negative-ttl:PT30S}") Duration negativeTtl,
+        @Value("${app.cache.early-refresh-beta:1.0}") double earlyRefreshBeta
+    ) {
+        ObjectMapper objectMapper = new ObjectMapper();
+        RedisCacheConfiguration redisCacheConfiguration = redisCacheConfiguration(
+            ttl,
+            new CodecRedisSerializer(codecs, jsonSerializer())
+        );
+
+        return new TwoLevelCacheManager(
+            redisCacheManager(connectionFactory, redisCacheConfiguration),
+            new RedisL2BatchOperations(connectionFactory, redisCacheConfiguration),
+            new CacheInvalidationPublisher(stringRedisTemplate, objectMapper, nodeId),
+            meterRegistry,
+            objectMapper,
+            nodeId,
+            new TwoLevelCacheSettings(l1MaximumSize, l1ExpireAfterWrite, ttl, negativeTtl, earlyRefreshBeta)
+        );
+    }
+
+    /**
+     * Pre-serialized JSON bodies of hot responses, see {@link SerializedResponseCache}. Disabled by default.
+     *
+     * @param objectMapper the object mapper of Spring MVC
+     */
+    @Bean
+    public SerializedResponseCache serializedResponseCache(
+        ObjectMapper objectMapper,
+        MeterRegistry meterRegistry,
+        @Value("${app.cache.serialized-responses.enabled:false}") boolean enabled,
+        @Value("${app.cache.serialized-responses.maximum-size:32MB}") DataSize maximumSize
+    ) {
+        return new SerializedResponseCache(objectMapper, meterRegistry, enabled ? maximumSize : null);
+    }
+
+    /**
+     * Subscribes the cache manager to invalidation messages of other nodes.
+     * Can be disabled with <code>app.cache.invalidation.enabled=false</code> for single-node setups.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.cache.invalidation.enabled", havingValue = "true", matchIfMissing = true)
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(
+        RedisConnectionFactory connectionFactory,
+        TwoLevelCacheManager cacheManager
+    ) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cacheManager, new ChannelTopic(CacheInvalidationPublisher.CHANNEL));
+
+        return container;
+    }
+
+    /**
+     * Configures Redis as the shared (L2) caching provider for the application.
+     *
+     * @param connectionFactory Redis connection factory injected by Spring
+     * @param config            configuration of all caches
+     *
+     * @return configured (L2) CacheManager
+     */
+    private static RedisCacheManager redisCacheManager(
+        RedisConnectionFactory connectionFactory,
+        RedisCacheConfiguration config
+    ) {
+        RedisCacheManager cacheManager = RedisCacheManager.builder(connectionFactory)
+            .cacheDefaults(config)
+            .build();
+        cacheManager.afterPropertiesSet(); // not a bean itself, so initialize it here
+
+        return cacheManager;
+    }
+
+    /**
+     * @param ttl        time to live of cache entries, unless given by a {@link CachedValue}
+     * @param serializer serializer for cached values
+     *
+     * @return the configuration of the Redis caches, with keys prefixed by {@link #KEY_PREFIX}
+     */
+    private static RedisCacheConfiguration redisCacheConfiguration(Duration ttl, RedisSerializer<Object> serializer) {
+        return RedisCacheConfiguration.defaultCacheConfig()
+            .prefixCacheNameWith(KEY_PREFIX)
+            .entryTtl((key, value) -> value instanceof CachedValue entry ? entry.timeToLive() : ttl)
+            .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(serializer));
+    }
+
+    /**
+     * Creates the JSON serializer for cached values without a binary {@link CacheValueCodec}.
+     * This serializer handles:
      * 1. JSON serialization of objects stored in Redis.
      * 2. Proper handling of Java 8 date/time types like Instant and LocalDateTime.
      * 3. Type information inclusion to avoid ClassCastException when reading from cache.
@@ -38,27 +182,15 @@ public class CacheConfig {
      * - activateDefaultTyping is safe here because Redis is internal and trusted.
      * - In public-facing scenarios, prefer Jackson2JsonRedisSerializer<T> for specific types.
      *
-     * @param connectionFactory Redis connection factory injected by Spring
-     *
-     * @return configured CacheManager
+     * @return the JSON serializer
      */
-    @Bean
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public static RedisSerializer<Object> jsonSerializer() {
         ObjectMapper objectMapper = new ObjectMapper()
             .registerModule(new JavaTimeModule()) // Enable support for Java 8 date/time types
             .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS) // Store dates as ISO-8601 strings
             // Adds type info for deserialization: ensures cached JSON can be converted back to the correct class
             .activateDefaultTyping(LaissezFaireSubTypeValidator.instance, ObjectMapper.DefaultTyping.NON_FINAL);
 
-        RedisSerializer<Object> serializer = new GenericJackson2JsonRedisSerializer(objectMapper);
-
-        // Configure Redis cache: TTL 10 minutes, using our custom serializer for values
-        RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
-            .entryTtl(Duration.ofMinutes(10))
-            .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(serializer));
-
-        return RedisCacheManager.builder(connectionFactory)
-            .cacheDefaults(config)
-            .build();
+        return new GenericJackson2JsonRedisSerializer(objectMapper);
     }
 }
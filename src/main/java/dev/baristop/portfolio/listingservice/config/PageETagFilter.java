@@ -0,0 +1,44 @@
+package dev.baristop.portfolio.listingservice.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+import java.io.IOException;
+
+/**
+ * Adds a weak ETag to paginated listing results and answers matching <code>If-None-Match</code> requests with
+ * 304 Not Modified.
+ * <p>
+ * A page has no cheap validator (it depends on filters, sorting and per-user favorites), so the ETag is a hash of
+ * the rendered body. This saves bandwidth, not the query.
+ * <p>
+ * Also sets <code>Cache-Control: no-cache, private</code>, which replaces Spring Security's default
+ * <code>no-store</code>: clients may keep the page, but must revalidate it on every use.
+ */
+public class PageETagFilter extends ShallowEtagHeaderFilter {
+
+    private static final String CACHE_CONTROL = CacheControl.noCache().cachePrivate().getHeaderValue();
+
+    public PageETagFilter() {
+        setWriteWeakETag(true);
+    }
+
+    @Override
+    protected void doFilterInternal(
+        HttpServletRequest request,
+        HttpServletResponse response,
+        FilterChain filterChain
+    ) throws ServletException, IOException {
+        if (HttpMethod.GET.matches(request.getMethod())) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        }
+
+        super.doFilterInternal(request, response, filterChain);
+    }
+}
@@ -0,0 +1,15 @@
+package dev.baristop.portfolio.listingservice.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables <code>@Scheduled</code> background jobs, e.g. the outbox relay.
+ * Can be disabled with <code>app.scheduling.enabled=false</code>, e.g. in tests that trigger the jobs themselves.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "app.scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {
+}
@@ -0,0 +1,41 @@
+package dev.baristop.portfolio.listingservice.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.query.sqm.function.SqmFunctionRegistry;
+import org.hibernate.type.BasicTypeRegistry;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registers PostgreSQL full-text search functions for use in HQL and Criteria queries.
+ * <p>
+ * JPA has no notion of the <code>@@</code> operator, so the search predicate and its rank are exposed as
+ * pattern functions taking the document columns (?1..?3) and the user query (?4):
+ * <ul>
+ *   <li><code>listing_fts_match(title, description, city, query)</code>: true if the document matches the query</li>
+ *   <li><code>listing_fts_rank(title, description, city, query)</code>: relevance of the document for the query</li>
+ * </ul>
+ * <p>
+ * The document expression is identical to the one of the GIN index <code>idx_listings_search</code>
+ * (see <code>V2__listing_search_indexes.sql</code>), so the match predicate is served from the index.
+ * <p>
+ * Registered via <code>META-INF/services/org.hibernate.boot.model.FunctionContributor</code>.
+ */
+public class SearchFunctionContributor implements FunctionContributor {
+
+    public static final String MATCH = "listing_fts_match";
+    public static final String RANK = "listing_fts_rank";
+
+    private static final String DOCUMENT =
+        "to_tsvector('simple', coalesce(?1, '') || ' ' || coalesce(?2, '') || ' ' || coalesce(?3, ''))";
+    private static final String QUERY = "websearch_to_tsquery('simple', ?4)";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        SqmFunctionRegistry registry = functionContributions.getFunctionRegistry();
+        BasicTypeRegistry types = functionContributions.getTypeConfiguration().getBasicTypeRegistry();
+
+        registry.registerPattern(MATCH, "(" + DOCUMENT + " @@ " + QUERY + ")", types.resolve(StandardBasicTypes.BOOLEAN));
+        registry.registerPattern(RANK, "ts_rank(" + DOCUMENT + ", " + QUERY + ")", types.resolve(StandardBasicTypes.DOUBLE));
+    }
+}
@@ -2,6 +2,8 @@ package dev.baristop.portfolio.listingservice.config;
 
 import dev.baristop.portfolio.listingservice.security.annotation.CurrentUserArgumentResolver;
 import lombok.AllArgsConstructor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -18,4 +20,16 @@ public class WebConfig implements WebMvcConfigurer {
     public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
         resolvers.add(currentUserArgumentResolver);
     }
+
+    /**
+     * Weak ETags for the paginated listing endpoints, see {@link PageETagFilter}.
+     * Single listings have their own strong ETag (see <code>ListingController#getListing</code>).
+     */
+    @Bean
+    public FilterRegistrationBean<PageETagFilter> pageETagFilter() {
+        FilterRegistrationBean<PageETagFilter> registration = new FilterRegistrationBean<>(new PageETagFilter());
+        registration.addUrlPatterns("/api/v1/listings", "/api/v1/users/me/listings", "/api/v1/users/me/favorites");
+
+        return registration;
+    }
 }
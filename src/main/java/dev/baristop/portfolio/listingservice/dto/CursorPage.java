@@ -0,0 +1,14 @@
+package dev.baristop.portfolio.listingservice.dto;
+
+import java.util.List;
+
+/**
+ * A page of results fetched via keyset pagination.
+ *
+ * @param content    the items of the current page
+ * @param size       the requested page size
+ * @param nextCursor cursor pointing to the following page, or null if this is the last page
+ * @param prevCursor cursor pointing to the preceding page, or null if this is the first page
+ */
+public record CursorPage<T>(List<T> content, int size, String nextCursor, String prevCursor) {
+}
@@ -0,0 +1,15 @@
+package dev.baristop.portfolio.listingservice.dto;
+
+/**
+ * Pagination strategies supported by paginated endpoints.
+ * <ul>
+ *   <li>{@link #OFFSET}: classic page/size pagination including total counts (default)</li>
+ *   <li>{@link #CURSOR}: keyset (seek) pagination using opaque cursors, no total counts</li>
+ *   <li>{@link #SLICE}: page/size pagination without count query, only reports whether a next page exists</li>
+ * </ul>
+ */
+public enum PaginationMode {
+    OFFSET,
+    CURSOR,
+    SLICE
+}
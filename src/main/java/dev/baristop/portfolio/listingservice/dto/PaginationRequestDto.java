@@ -12,7 +12,7 @@ import lombok.ToString;
 @ToString
 public class PaginationRequestDto {
 
-    @Schema(description = "Page number (1-based)", example = "1")
+    @Schema(description = "Page number (1-based), ignored in CURSOR mode", example = "1")
     @Min(1)
     private Integer page = 1;
 
@@ -27,7 +27,27 @@ public class PaginationRequestDto {
     @Schema(description = "Sort direction", example = "asc")
     private String sortDir = "asc";
 
+    @Schema(description = "Pagination mode", example = "OFFSET")
+    private PaginationMode mode = PaginationMode.OFFSET;
+
+    @Schema(description = "SLICE mode only: include an estimated total taken from database statistics", example = "false")
+    private boolean estimateTotal = false;
+
+    @Schema(description = "Opaque cursor returned as nextCursor/prevCursor of a previous CURSOR mode response")
+    private String cursor;
+
     public int calculateZeroBasedPage() {
         return Math.max(this.getPage() - 1, 0);
     }
+
+    /**
+     * Returns the pagination mode to use. Cursor mode is used when explicitly requested or when a cursor is passed along.
+     */
+    public PaginationMode resolveMode() {
+        if (this.cursor != null && !this.cursor.isBlank()) {
+            return PaginationMode.CURSOR;
+        }
+
+        return this.mode != null ? this.mode : PaginationMode.OFFSET;
+    }
 }
@@ -0,0 +1,15 @@
+package dev.baristop.portfolio.listingservice.dto;
+
+import java.util.List;
+
+/**
+ * A page of results fetched without a count query.
+ *
+ * @param content                the items of the current page
+ * @param page                   the current page number (1-based)
+ * @param size                   the requested page size
+ * @param hasNext                whether a following page exists
+ * @param estimatedTotalElements approximate total taken from database statistics, or null if not requested or not available
+ */
+public record SlicePage<T>(List<T> content, int page, int size, boolean hasNext, Long estimatedTotalElements) {
+}
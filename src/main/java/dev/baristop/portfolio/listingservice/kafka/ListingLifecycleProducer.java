@@ -0,0 +1,108 @@
+package dev.baristop.portfolio.listingservice.kafka;
+
+import dev.baristop.portfolio.listingservice.kafka.dto.ListingLifecycleEvent;
+import dev.baristop.portfolio.listingservice.kafka.dto.ListingLifecycleEventType;
+import dev.baristop.portfolio.listingservice.listing.entity.Listing;
+import dev.baristop.portfolio.listingservice.listing.entity.ListingStatus;
+import dev.baristop.portfolio.listingservice.outbox.service.OutboxService;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Produces {@link ListingLifecycleEvent}s for every change of a listing, so other services can keep their own read
+ * models of listings instead of polling the API.
+ * <p>
+ * Events are keyed by listing ID, so the events of a listing keep their order. Like {@link ListingStatusProducer},
+ * all methods must be called within the transaction of the change, events are published via the outbox.
+ */
+@Service
+@AllArgsConstructor
+@Slf4j
+public class ListingLifecycleProducer {
+
+    public static final String TOPIC = "listing-lifecycle";
+
+    private final OutboxService outboxService;
+
+    public void listingCreated(Listing listing) {
+        send(event(ListingLifecycleEventType.CREATED, listing.getId())
+            .ownerKeycloakId(listing.getOwner().getKeycloakId())
+            .title(listing.getTitle())
+            .price(listing.getPrice())
+            .city(listing.getCity())
+            .status(listing.getStatus())
+            .build());
+    }
+
+    /**
+     * Must be called once the update has been flushed, while the transaction holds the row lock of the listing: a
+     * concurrent change of the listing then writes its event after this one. Sends nothing if no field changed.
+     *
+     * @param previous the fields of the listing before the update
+     * @param listing  the updated listing
+     */
+    public void listingUpdated(ListingFields previous, Listing listing) {
+        boolean titleChanged = !Objects.equals(previous.title(), listing.getTitle());
+        boolean priceChanged = !samePrice(previous.price(), listing.getPrice());
+        boolean cityChanged = !Objects.equals(previous.city(), listing.getCity());
+        boolean descriptionChanged = !Objects.equals(previous.description(), listing.getDescription());
+        if (!titleChanged && !priceChanged && !cityChanged && !descriptionChanged) {
+            return;
+        }
+
+        send(event(ListingLifecycleEventType.UPDATED, listing.getId())
+            .title(titleChanged ? listing.getTitle() : null)
+            .price(priceChanged ? listing.getPrice() : null)
+            .city(cityChanged ? listing.getCity() : null)
+            .descriptionChanged(descriptionChanged ? true : null)
+            .build());
+    }
+
+    public void statusChanged(Long listingId, ListingStatus status) {
+        send(event(ListingLifecycleEventType.STATUS_CHANGED, listingId).status(status).build());
+    }
+
+    public void listingDeleted(Long listingId) {
+        send(event(ListingLifecycleEventType.DELETED, listingId).build());
+    }
+
+    public void favoriteChanged(Long listingId, Long userId, boolean isFavorite) {
+        ListingLifecycleEventType type = isFavorite
+            ? ListingLifecycleEventType.FAVORITE_ADDED
+            : ListingLifecycleEventType.FAVORITE_REMOVED;
+
+        send(event(type, listingId).userId(userId).build());
+    }
+
+    private static ListingLifecycleEvent.ListingLifecycleEventBuilder event(ListingLifecycleEventType type, Long listingId) {
+        return ListingLifecycleEvent.builder()
+            .type(type)
+            .listingId(listingId)
+            .occurredAt(Instant.now());
+    }
+
+    // 10.0 and 10.00 are the same price
+    private static boolean samePrice(BigDecimal a, BigDecimal b) {
+        return a == null ? b == null : b != null && a.compareTo(b) == 0;
+    }
+
+    private void send(ListingLifecycleEvent event) {
+        outboxService.enqueue(TOPIC, String.valueOf(event.getListingId()), event);
+        log.debug("ListingLifecycleEvent enqueued for listing id={} type={}", event.getListingId(), event.getType());
+    }
+
+    /**
+     * The updatable fields of a listing, taken before an update for {@link #listingUpdated}.
+     */
+    public record ListingFields(String title, String description, BigDecimal price, String city) {
+
+        public static ListingFields of(Listing listing) {
+            return new ListingFields(listing.getTitle(), listing.getDescription(), listing.getPrice(), listing.getCity());
+        }
+    }
+}
@@ -1,11 +1,15 @@
 package dev.baristop.portfolio.listingservice.kafka;
 
 import dev.baristop.portfolio.listingservice.kafka.dto.ListingStatusChangedEvent;
+import dev.baristop.portfolio.listingservice.outbox.service.OutboxService;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
+/**
+ * Produces {@link ListingStatusChangedEvent}s via the transactional outbox: events are stored with the status change
+ * and published by {@link dev.baristop.portfolio.listingservice.outbox.service.OutboxRelay} after the commit.
+ */
 @Service
 @AllArgsConstructor
 @Slf4j
@@ -13,13 +17,14 @@ public class ListingStatusProducer {
 
     public static final String TOPIC = "listing-status-changed";
 
-    private final KafkaTemplate<String, ListingStatusChangedEvent> kafkaTemplate;
+    private final OutboxService outboxService;
 
+    /**
+     * Must be called within the transaction changing the status. Events of a listing are keyed by its ID,
+     * so they keep their order.
+     */
     public void sendListingStatusEvent(ListingStatusChangedEvent event) {
-        kafkaTemplate.send(TOPIC, event)
-            .whenComplete((r, e) -> {
-                if (e != null) log.error("Failed to send ListingStatusChangedEvent", e);
-                else log.info("ListingStatusChangedEvent sent: {}", event);
-            });
+        outboxService.enqueue(TOPIC, String.valueOf(event.getListingId()), event);
+        log.debug("ListingStatusChangedEvent enqueued for listing id={} status={}", event.getListingId(), event.getStatus());
     }
 }
@@ -0,0 +1,35 @@
+package dev.baristop.portfolio.listingservice.kafka.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import dev.baristop.portfolio.listingservice.listing.entity.ListingStatus;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * A change of a listing, carrying only the changed fields (unset fields are omitted from the JSON).
+ * The description itself is never sent, only whether it changed.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Getter
+@Setter
+@ToString
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ListingLifecycleEvent {
+    private ListingLifecycleEventType type;
+    private Long listingId;
+    private Instant occurredAt;
+
+    private String ownerKeycloakId;
+    private String title;
+    private BigDecimal price;
+    private String city;
+    private Boolean descriptionChanged;
+    private ListingStatus status;
+
+    // favorite events only
+    private Long userId;
+}
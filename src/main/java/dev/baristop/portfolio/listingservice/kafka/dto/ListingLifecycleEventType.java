@@ -0,0 +1,10 @@
+package dev.baristop.portfolio.listingservice.kafka.dto;
+
+public enum ListingLifecycleEventType {
+    CREATED,
+    UPDATED,
+    STATUS_CHANGED,
+    DELETED,
+    FAVORITE_ADDED,
+    FAVORITE_REMOVED
+}
@@ -1,21 +1,33 @@
 package dev.baristop.portfolio.listingservice.listing.controller;
 
 import dev.baristop.portfolio.listingservice.listing.dto.ListingDto;
+import dev.baristop.portfolio.listingservice.listing.dto.ListingQueryRequestDto;
 import dev.baristop.portfolio.listingservice.listing.dto.ListingStatusResponse;
 import dev.baristop.portfolio.listingservice.listing.entity.ListingStatus;
+import dev.baristop.portfolio.listingservice.listing.service.ListingExportService;
 import dev.baristop.portfolio.listingservice.listing.service.ListingStatusService;
 import dev.baristop.portfolio.listingservice.security.util.Role;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.annotation.Secured;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+
 @RestController
 @RequestMapping("/api/v1/admin/listings")
 @RequiredArgsConstructor
@@ -24,6 +36,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class AdminListingController {
 
     private final ListingStatusService listingStatusService;
+    private final ListingExportService listingExportService;
 
     @PatchMapping("/{id}/approve")
     @Operation(
@@ -43,6 +56,28 @@ public class AdminListingController {
         return updateStatus(id, ListingStatus.REJECTED);
     }
 
+    @GetMapping("/export")
+    @Operation(
+        summary = "Exports listings as NDJSON",
+        description = "Streams all listings matching the filters (including status), one JSON object per line, "
+            + "ordered by ID. Pagination parameters are ignored. With gzip=true, a gzip-compressed file is returned.",
+        security = {@SecurityRequirement(name = "bearerAuth")}
+    )
+    public void exportListings(
+        @Parameter(description = "Query parameters for filtering listings") @Valid ListingQueryRequestDto filters,
+        @Parameter(description = "Compress the export with gzip") @RequestParam(defaultValue = "false") boolean gzip,
+        HttpServletResponse response
+    ) throws IOException {
+        // written directly to the response: an async StreamingResponseBody would be cut off by the async request timeout
+        response.setContentType(gzip ? "application/gzip" : MediaType.APPLICATION_NDJSON_VALUE);
+        response.setHeader(
+            HttpHeaders.CONTENT_DISPOSITION,
+            ContentDisposition.attachment().filename(gzip ? "listings.ndjson.gz" : "listings.ndjson").build().toString()
+        );
+
+        listingExportService.exportListings(filters, response.getOutputStream(), gzip);
+    }
+
     private ResponseEntity<ListingStatusResponse> updateStatus(Long id, ListingStatus status) {
         ListingDto updated = listingStatusService.updateListingStatus(id, status);
 
@@ -1,5 +1,6 @@
 package dev.baristop.portfolio.listingservice.listing.controller;
 
+import dev.baristop.portfolio.listingservice.cache.SerializedResponseCache;
 import dev.baristop.portfolio.listingservice.listing.dto.*;
 import dev.baristop.portfolio.listingservice.listing.entity.Listing;
 import dev.baristop.portfolio.listingservice.listing.entity.ListingStatus;
@@ -22,13 +23,16 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
-import org.springframework.data.domain.Page;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.annotation.Secured;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/v1/listings")
 @AllArgsConstructor
@@ -37,6 +41,7 @@ import org.springframework.web.bind.annotation.*;
 public class ListingController {
 
     private final ListingService listingService;
+    private final SerializedResponseCache serializedResponseCache;
 
     @PostMapping
     @Secured({Role.USER})
@@ -119,13 +124,48 @@ public class ListingController {
         );
     }
 
+    @GetMapping("/batch")
+    @Operation(
+        summary = "Get listings by IDs",
+        description = "Returns the listings identified by the given IDs (at most " + ListingService.MAX_BATCH_SIZE
+            + "), in the order of the IDs. Missing listings and listings not visible to the user are omitted."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Listings found"),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Too many IDs",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = ErrorResponse.class)
+            )
+        )
+    })
+    public List<ListingDto> getListingsByIds(
+        @Parameter(description = "Comma-separated IDs of the listings to retrieve", required = true)
+        @RequestParam List<Long> ids,
+        @Parameter(hidden = true) @CurrentUser UserPrincipal currentUser
+    ) {
+        return listingService.getListingsByIds(ids, currentUser);
+    }
+
     @GetMapping("/{id}")
     @Operation(
         summary = "Get listing by ID",
-        description = "Returns the listing identified by the given ID."
+        description = "Returns the listing identified by the given ID. "
+            + "Supports conditional requests: send the ETag as If-None-Match (or Last-Modified as If-Modified-Since) "
+            + "to get 304 Not Modified without a body if the listing has not changed."
     )
     @ApiResponses({
-        @ApiResponse(responseCode = "200", description = "Listing found"),
+        @ApiResponse(
+            responseCode = "200",
+            description = "Listing found",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = ListingDto.class)
+            )
+        ),
+        @ApiResponse(responseCode = "304", description = "Listing not modified since the given ETag or date"),
         @ApiResponse(
             responseCode = "404",
             description = "Listing not found",
@@ -135,19 +175,35 @@ public class ListingController {
             )
         )
     })
-    public ResponseEntity<ListingDto> getListing(
+    public ResponseEntity<?> getListing(
         @Parameter(description = "ID of the listing to retrieve", required = true) @PathVariable Long id,
         @Parameter(hidden = true) @CurrentUser UserPrincipal currentUser
     ) {
-        ListingDto dto = listingService.getListingById(id, currentUser);
+        CachedListing listing = listingService.getVisibleListing(id, currentUser);
+
+        // the validators are evaluated against the request's conditional headers by Spring MVC,
+        // which answers 304 without serializing the body
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .eTag(listing.eTag())
+            .lastModified(listing.updatedAt())
+            .cacheControl(CacheControl.noCache().cachePrivate());
+
+        // opt-in fast path: the public representation is serialized once per version, the bytes are written as is
+        if (serializedResponseCache.isEnabled()) {
+            return response
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(serializedResponseCache.get(listing.eTag(), listing::listing));
+        }
 
-        return ResponseEntity.ok(dto);
+        return response.body(listing.listing());
     }
 
     @GetMapping
     @Operation(
         summary = "Get all public listings",
-        description = "Returns paginated list of listings based on query parameters"
+        description = "Returns paginated list of listings based on query parameters. "
+            + "Use mode=CURSOR for keyset pagination, which stays fast on deep pages and returns next/prev cursors instead of totals. "
+            + "Use mode=SLICE to skip the count query (optionally with estimateTotal=true for an approximate total)."
     )
     public PaginatedResponse<ListingDto> getAllListings(
         @Parameter(description = "Query parameters for filtering listings")
@@ -156,8 +212,11 @@ public class ListingController {
     ) {
         // always set ListingStatus.APPROVED, regardless of what query param "status" was set to
         listingQueryRequestDto.setStatus(ListingStatus.APPROVED);
-        Page<ListingDto> resultPage = listingService.getAllListings(listingQueryRequestDto, user);
 
-        return new PaginatedResponse<>(resultPage);
+        return switch (listingQueryRequestDto.resolveMode()) {
+            case CURSOR -> new PaginatedResponse<>(listingService.getAllListingsByCursor(listingQueryRequestDto, user));
+            case SLICE -> new PaginatedResponse<>(listingService.getAllListingsAsSlice(listingQueryRequestDto, user));
+            case OFFSET -> new PaginatedResponse<>(listingService.getAllListings(listingQueryRequestDto, user));
+        };
     }
 }
@@ -12,8 +12,10 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.AllArgsConstructor;
 import org.springframework.security.access.annotation.Secured;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -41,4 +43,36 @@ public class ListingFavoriteController {
 
         return new ToggleFavoriteResponse(isFavorite);
     }
+
+    @PutMapping("/{listingId}/favorite")
+    @Secured({Role.USER})
+    @Operation(
+        summary = "Add favorite listing",
+        description = "Marks a listing as favorite. Idempotent, marking an existing favorite again has no effect",
+        security = {@SecurityRequirement(name = "bearerAuth")}
+    )
+    public ToggleFavoriteResponse addFavorite(
+        @PathVariable Long listingId,
+        @Parameter(hidden = true) @CurrentUser User user
+    ) {
+        favoriteService.addFavorite(user.getId(), listingId);
+
+        return new ToggleFavoriteResponse(true);
+    }
+
+    @DeleteMapping("/{listingId}/favorite")
+    @Secured({Role.USER})
+    @Operation(
+        summary = "Remove favorite listing",
+        description = "Unmarks a favorite listing. Idempotent, unmarking a listing that is not a favorite has no effect",
+        security = {@SecurityRequirement(name = "bearerAuth")}
+    )
+    public ToggleFavoriteResponse removeFavorite(
+        @PathVariable Long listingId,
+        @Parameter(hidden = true) @CurrentUser User user
+    ) {
+        favoriteService.removeFavorite(user.getId(), listingId);
+
+        return new ToggleFavoriteResponse(false);
+    }
 }
@@ -2,7 +2,6 @@ package dev.baristop.portfolio.listingservice.listing.controller;
 
 import dev.baristop.portfolio.listingservice.listing.dto.ListingDto;
 import dev.baristop.portfolio.listingservice.listing.dto.ListingQueryRequestDto;
-import dev.baristop.portfolio.listingservice.listing.repository.UserFavoriteListingRepository;
 import dev.baristop.portfolio.listingservice.listing.service.ListingService;
 import dev.baristop.portfolio.listingservice.response.PaginatedResponse;
 import dev.baristop.portfolio.listingservice.security.annotation.CurrentUser;
@@ -14,17 +13,12 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.security.access.annotation.Secured;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.List;
-import java.util.Set;
-
 @RestController
 @RequestMapping("/api/v1/users/me")
 @AllArgsConstructor
@@ -33,13 +27,13 @@ import java.util.Set;
 public class UserListingController {
 
     private final ListingService listingService;
-    private final UserFavoriteListingRepository favoriteRepository;
 
     @GetMapping("/listings")
     @Secured({Role.USER})
     @Operation(
         summary = "List current user's listings",
-        description = "Returns a paginated list of all listings created by the authenticated user, supporting filtering and sorting.",
+        description = "Returns a paginated list of all listings created by the authenticated user, supporting filtering and sorting. "
+            + "Use mode=CURSOR for keyset pagination or mode=SLICE to skip the count query.",
         security = {@SecurityRequirement(name = "bearerAuth")}
     )
     public PaginatedResponse<ListingDto> getMyListings(
@@ -48,33 +42,33 @@ public class UserListingController {
     ) {
         listingQueryRequestDto.updateOwner(user);
 
-        Page<ListingDto> resultPage = listingService.getAllListings(listingQueryRequestDto, user);
-
-        return new PaginatedResponse<>(resultPage);
+        return switch (listingQueryRequestDto.resolveMode()) {
+            case CURSOR -> new PaginatedResponse<>(listingService.getAllListingsByCursor(listingQueryRequestDto, user));
+            case SLICE -> new PaginatedResponse<>(listingService.getAllListingsAsSlice(listingQueryRequestDto, user));
+            case OFFSET -> new PaginatedResponse<>(listingService.getAllListings(listingQueryRequestDto, user));
+        };
     }
 
     @GetMapping("/favorites")
     @Secured({Role.USER})
     @Operation(
         summary = "List user's favorited listings",
-        description = "Returns a paginated list of listings that the authenticated user has marked as favorites, with support for filtering and sorting.",
+        description = "Returns a paginated list of listings that the authenticated user has marked as favorites, with support for filtering and sorting. "
+            + "Use mode=CURSOR for keyset pagination or mode=SLICE to skip the count query.",
         security = {@SecurityRequirement(name = "bearerAuth")}
     )
     public PaginatedResponse<ListingDto> getMyFavoriteListings(
         @Parameter(description = "Query parameters for filtering listings") @Valid ListingQueryRequestDto listingQueryRequestDto,
         @CurrentUser User user
     ) {
-        // Pass the current user so that "isFavorite" flags are set correctly
-        Page<ListingDto> resultPage = listingService.getAllListings(listingQueryRequestDto, user);
-
-        Set<Long> favoriteIds = favoriteRepository.findFavoriteListingIdsByUserId(user.getId());
+        // filtering happens in the query, so pages and totals only cover favorited listings
+        listingQueryRequestDto.updateFavoritedBy(user);
 
-        List<ListingDto> filtered = resultPage.stream()
-            .filter(dto -> favoriteIds.contains(dto.getId()))
-            .toList();
-
-        Page<ListingDto> filteredPage = new PageImpl<>(filtered, resultPage.getPageable(), filtered.size());
-
-        return new PaginatedResponse<>(filteredPage);
+        // Pass the current user so that "isFavorite" flags are set correctly
+        return switch (listingQueryRequestDto.resolveMode()) {
+            case CURSOR -> new PaginatedResponse<>(listingService.getAllListingsByCursor(listingQueryRequestDto, user));
+            case SLICE -> new PaginatedResponse<>(listingService.getAllListingsAsSlice(listingQueryRequestDto, user));
+            case OFFSET -> new PaginatedResponse<>(listingService.getAllListings(listingQueryRequestDto, user));
+        };
     }
 }
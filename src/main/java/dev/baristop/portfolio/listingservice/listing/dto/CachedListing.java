@@ -0,0 +1,61 @@
+package dev.baristop.portfolio.listingservice.listing.dto;
+
+import dev.baristop.portfolio.listingservice.listing.entity.ListingStatus;
+import dev.baristop.portfolio.listingservice.security.dto.UserPrincipal;
+import jakarta.annotation.Nullable;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * A listing as stored in the <code>listings</code> cache: the DTO plus what is needed to check its visibility,
+ * so that the check can run on every cache hit without querying the database.
+ *
+ * @param listing         the listing, shared between callers and therefore not to be modified
+ * @param ownerKeycloakId the Keycloak ID of the listing's owner
+ * @param updatedAt       the last modification of the listing, used as validator for conditional requests
+ */
+public record CachedListing(ListingDto listing, String ownerKeycloakId, Instant updatedAt) {
+
+    // used by the JPQL constructor expression
+    public CachedListing(
+        Long id,
+        String title,
+        String description,
+        BigDecimal price,
+        String city,
+        ListingStatus status,
+        Instant createdAt,
+        Instant updatedAt,
+        String ownerKeycloakId
+    ) {
+        this(new ListingDto(id, title, description, price, city, status, createdAt), ownerKeycloakId, updatedAt);
+    }
+
+    /**
+     * Strong entity tag of this version of the listing, derived from its ID and last modification.
+     * <p>
+     * Unlike <code>Last-Modified</code> (whole seconds), it changes with every update.
+     *
+     * @return the unquoted entity tag
+     */
+    public String eTag() {
+        return listing.getId() + "-" + ChronoUnit.MICROS.between(Instant.EPOCH, updatedAt);
+    }
+
+    /**
+     * Only non-PENDING listings are visible to the public, owners and admins can view all listings.
+     *
+     * @param userPrincipal the currently authenticated user, or null if unauthenticated
+     *
+     * @return true if the user may view this listing
+     */
+    public boolean isVisibleTo(@Nullable UserPrincipal userPrincipal) {
+        if (listing.getStatus() != ListingStatus.PENDING) {
+            return true;
+        }
+
+        return userPrincipal != null && (userPrincipal.isAdmin() || ownerKeycloakId.equals(userPrincipal.id()));
+    }
+}
@@ -14,8 +14,14 @@ import java.math.BigDecimal;
 @Schema(description = "Request body for creating a new listing")
 public class ListingCreateRequest {
 
+    // also checked by the bulk import, see ListingImportService
+    public static final int MIN_TEXT_LENGTH = 2;
+    public static final int MAX_TITLE_LENGTH = 255;
+    public static final int MAX_DESCRIPTION_LENGTH = 2000;
+    public static final int MAX_CITY_LENGTH = 255;
+
     @NotNull
-    @Size(min = 2, max = 255)
+    @Size(min = MIN_TEXT_LENGTH, max = MAX_TITLE_LENGTH)
     @Schema(
         description = "Title of the listing",
         example = "Used iPhone 14"
@@ -23,7 +29,7 @@ public class ListingCreateRequest {
     private String title;
 
     @NotNull
-    @Size(min = 2, max = 2000)
+    @Size(min = MIN_TEXT_LENGTH, max = MAX_DESCRIPTION_LENGTH)
     @Schema(
         description = "Detailed description of the listing",
         example = "Used iPhone 14 in good conditions"
@@ -36,7 +42,7 @@ public class ListingCreateRequest {
     private BigDecimal price;
 
     @NotNull
-    @Size(min = 2, max = 255)
+    @Size(min = MIN_TEXT_LENGTH, max = MAX_CITY_LENGTH)
     @Schema(description = "City where the listing is located", example = "Saarlouis")
     private String city;
 }
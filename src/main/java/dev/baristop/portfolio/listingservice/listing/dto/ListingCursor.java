@@ -0,0 +1,91 @@
+package dev.baristop.portfolio.listingservice.listing.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Base64;
+
+/**
+ * Position of a listing within a sorted result set, used for keyset (seek) pagination on (sortBy, id).
+ * <p>
+ * Clients only ever see the encoded (Base64 URL-safe JSON) form, which is treated as opaque.
+ * The sort field and direction are part of the cursor so that a cursor cannot be replayed against a different sorting.
+ *
+ * @param sortBy   the field the result set is sorted by
+ * @param sortDir  the sort direction ("asc" or "desc")
+ * @param value    the sort field value of the boundary listing (as string)
+ * @param id       the id of the boundary listing, used as tie-breaker
+ * @param backward whether to scroll to the listings before (true) or after (false) the boundary listing
+ */
+public record ListingCursor(String sortBy, String sortDir, String value, Long id, boolean backward) {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    public static ListingCursor after(ListingDto listing, String sortBy, String sortDir) {
+        return new ListingCursor(sortBy, sortDir, sortValueOf(listing, sortBy), listing.getId(), false);
+    }
+
+    public static ListingCursor before(ListingDto listing, String sortBy, String sortDir) {
+        return new ListingCursor(sortBy, sortDir, sortValueOf(listing, sortBy), listing.getId(), true);
+    }
+
+    /**
+     * Decodes a cursor previously created by {@link #encode()}.
+     *
+     * The sort value is validated eagerly, so that a tampered cursor is rejected here and not only when the
+     * seek predicate is evaluated during query execution.
+     *
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static ListingCursor decode(String encoded) {
+        try {
+            ListingCursor cursor = OBJECT_MAPPER.readValue(Base64.getUrlDecoder().decode(encoded), ListingCursor.class);
+            if (cursor.sortBy() == null || cursor.sortDir() == null || cursor.id() == null) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            if (!cursor.sortBy().equals("id")) {
+                if (cursor.value() == null) {
+                    throw new IllegalArgumentException("Invalid cursor");
+                }
+                cursor.typedValue();
+            }
+
+            return cursor;
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    public String encode() {
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(OBJECT_MAPPER.writeValueAsBytes(this));
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to encode cursor", e);
+        }
+    }
+
+    public boolean matches(String sortBy, String sortDir) {
+        return this.sortBy.equals(sortBy) && this.sortDir.equalsIgnoreCase(sortDir);
+    }
+
+    /**
+     * Returns the sort field value of the boundary listing, typed like the entity attribute.
+     */
+    public Object typedValue() {
+        return switch (sortBy) {
+            case "title" -> value;
+            case "price" -> new BigDecimal(value);
+            default -> throw new IllegalArgumentException("Invalid cursor sort field: " + sortBy);
+        };
+    }
+
+    private static String sortValueOf(ListingDto listing, String sortBy) {
+        return switch (sortBy) {
+            case "id" -> null;
+            case "title" -> listing.getTitle();
+            case "price" -> listing.getPrice().toPlainString();
+            default -> throw new IllegalArgumentException("Invalid sortBy field: " + sortBy);
+        };
+    }
+}
@@ -23,4 +23,17 @@ public class ListingDto {
 
     @JsonInclude(JsonInclude.Include.NON_NULL)
     private Boolean isFavorite;
+
+    // used by JPQL/Criteria constructor expressions, "isFavorite" is set afterward depending on the current user
+    public ListingDto(
+        Long id,
+        String title,
+        String description,
+        BigDecimal price,
+        String city,
+        ListingStatus status,
+        Instant createdAt
+    ) {
+        this(id, title, description, price, city, status, createdAt, null);
+    }
 }
@@ -0,0 +1,25 @@
+package dev.baristop.portfolio.listingservice.listing.dto;
+
+import java.nio.file.Path;
+
+/**
+ * Input formats of the listing import (see {@link dev.baristop.portfolio.listingservice.listing.service.ListingImportService}).
+ */
+public enum ListingImportFormat {
+    /**
+     * Comma-separated values with a header row naming the columns.
+     */
+    CSV,
+    /**
+     * One JSON object per line.
+     */
+    NDJSON;
+
+    /**
+     * @return the format by file extension: <code>.ndjson</code> and <code>.jsonl</code> are NDJSON, anything else CSV
+     */
+    public static ListingImportFormat of(Path file) {
+        String name = file.getFileName().toString().toLowerCase();
+        return name.endsWith(".ndjson") || name.endsWith(".jsonl") ? NDJSON : CSV;
+    }
+}
@@ -0,0 +1,15 @@
+package dev.baristop.portfolio.listingservice.listing.dto;
+
+/**
+ * @param read     the rows read from the input
+ * @param imported the listings created
+ */
+public record ListingImportResult(long read, long imported) {
+
+    /**
+     * @return the rows not imported, because their owner is unknown or their status invalid
+     */
+    public long skipped() {
+        return read - imported;
+    }
+}
@@ -24,6 +24,17 @@ public class ListingQueryRequestDto extends PaginationRequestDto {
     @Setter(AccessLevel.NONE) // prevent setting via query params (e.g. WebDataBinder)
     private User owner;
 
+    @Schema(hidden = true)
+    @Setter(AccessLevel.NONE) // prevent setting via query params (e.g. WebDataBinder)
+    private User favoritedBy;
+
+    @Schema(
+        description = "Full-text search over title, description and city (supports quotes, OR and -exclusions). "
+            + "Results are ranked by relevance, except in CURSOR mode which keeps the sortBy ordering",
+        example = "pixel -broken"
+    )
+    private String q;
+
     @Schema(description = "Filter by title", example = "Google Pixel 8")
     private String title;
 
@@ -46,4 +57,9 @@ public class ListingQueryRequestDto extends PaginationRequestDto {
     public void updateOwner(User user) {
         this.owner = user;
     }
+
+    // Restricts the query to listings favorited by the given user, see updateOwner()
+    public void updateFavoritedBy(User user) {
+        this.favoritedBy = user;
+    }
 }
@@ -9,6 +9,7 @@ import lombok.Setter;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -19,8 +20,16 @@ import java.util.List;
 @NoArgsConstructor
 public class Listing {
 
+    /**
+     * IDs reserved per sequence call (Hibernate's pooled optimizer), must match the increment of
+     * <code>listings_seq</code>.
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // sequence instead of IDENTITY, so inserts can be batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "listings_seq")
+    @SequenceGenerator(name = "listings_seq", sequenceName = "listings_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     private String title;
@@ -38,8 +47,9 @@ public class Listing {
     @Column(nullable = false, updatable = false)
     private Instant createdAt = Instant.now();
 
+    // truncated to the database precision, so that the in-memory value matches the stored one (used for ETags)
     @Column(nullable = false)
-    private Instant updatedAt = Instant.now();
+    private Instant updatedAt = Instant.now().truncatedTo(ChronoUnit.MICROS);
 
     @OneToMany(mappedBy = "listing", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<UserFavoriteListing> favorites = new ArrayList<>();
@@ -55,7 +65,7 @@ public class Listing {
 
     @PreUpdate
     public void preUpdate() {
-        updatedAt = Instant.now();
+        updatedAt = Instant.now().truncatedTo(ChronoUnit.MICROS);
     }
 
     public boolean isStatusPending() {
@@ -63,7 +73,8 @@ public class Listing {
     }
 
     public boolean isOwner(User user) {
-        return this.getOwner().equals(user);
+        // compare IDs: the user is usually not attached to the current persistence context
+        return this.getOwner().getId().equals(user.getId());
     }
 
     public boolean isOwner(UserPrincipal user) {
@@ -17,16 +17,21 @@ import java.time.Instant;
 @Setter
 @NoArgsConstructor
 public class UserFavoriteListing {
+
+    // named like in the migration, so that a violation can be told apart from the one on user_id
+    public static final String LISTING_FOREIGN_KEY = "FK_USER_FAVORITE_LISTING_ON_LISTING";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_favorite_listing_seq")
+    @SequenceGenerator(name = "user_favorite_listing_seq", sequenceName = "user_favorite_listing_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(optional = false)
-    @JoinColumn(name = "user_id", nullable = false)
+    @JoinColumn(name = "user_id", nullable = false, foreignKey = @ForeignKey(name = "FK_USER_FAVORITE_LISTING_ON_USER"))
     private User user;
 
     @ManyToOne(optional = false)
-    @JoinColumn(name = "listing_id", nullable = false)
+    @JoinColumn(name = "listing_id", nullable = false, foreignKey = @ForeignKey(name = UserFavoriteListing.LISTING_FOREIGN_KEY))
     private Listing listing;
 
     @Column(nullable = false, updatable = false)
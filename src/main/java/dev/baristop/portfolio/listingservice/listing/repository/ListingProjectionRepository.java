@@ -0,0 +1,46 @@
+package dev.baristop.portfolio.listingservice.listing.repository;
+
+import dev.baristop.portfolio.listingservice.listing.dto.ListingDto;
+import dev.baristop.portfolio.listingservice.listing.entity.Listing;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Read queries selecting listings directly into {@link ListingDto} projections.
+ * <p>
+ * No entities are loaded, so nothing ends up in the persistence context: no owner proxies or favorite collections
+ * are created and there is nothing to dirty check at commit time.
+ * The specifications of {@link dev.baristop.portfolio.listingservice.listing.specification.ListingSpecification}
+ * can be used as they are.
+ */
+public interface ListingProjectionRepository {
+
+    /**
+     * Returns a page of listings matching the specification, including the total count.
+     */
+    Page<ListingDto> findAllAsDto(Specification<Listing> spec, Pageable pageable);
+
+    /**
+     * Returns a slice of listings matching the specification without counting all matches.
+     * One additional row is fetched to determine whether a next slice exists.
+     */
+    Slice<ListingDto> findSliceAsDto(Specification<Listing> spec, Pageable pageable);
+
+    /**
+     * Returns up to <code>limit</code> listings matching the specification in the given order.
+     */
+    List<ListingDto> findAllAsDto(Specification<Listing> spec, Sort sort, int limit);
+
+    /**
+     * Streams all listings matching the specification in the given order through a forward-only cursor, which fetches
+     * <code>fetchSize</code> rows at a time. Must be consumed and closed within a transaction (PostgreSQL only uses a
+     * cursor without auto-commit).
+     */
+    Stream<ListingDto> streamAsDto(Specification<Listing> spec, Sort sort, int fetchSize);
+}
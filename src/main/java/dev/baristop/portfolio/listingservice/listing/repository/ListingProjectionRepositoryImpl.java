@@ -0,0 +1,114 @@
+package dev.baristop.portfolio.listingservice.listing.repository;
+
+import dev.baristop.portfolio.listingservice.listing.dto.ListingDto;
+import dev.baristop.portfolio.listingservice.listing.entity.Listing;
+import dev.baristop.portfolio.listingservice.listing.entity.Listing_;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+class ListingProjectionRepositoryImpl implements ListingProjectionRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<ListingDto> findAllAsDto(Specification<Listing> spec, Pageable pageable) {
+        List<ListingDto> content = createQuery(spec, pageable.getSort())
+            .setFirstResult((int) pageable.getOffset())
+            .setMaxResults(pageable.getPageSize())
+            .getResultList();
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(spec));
+    }
+
+    @Override
+    public Slice<ListingDto> findSliceAsDto(Specification<Listing> spec, Pageable pageable) {
+        List<ListingDto> content = createQuery(spec, pageable.getSort())
+            .setFirstResult((int) pageable.getOffset())
+            .setMaxResults(pageable.getPageSize() + 1)
+            .getResultList();
+
+        boolean hasNext = content.size() > pageable.getPageSize();
+
+        return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+    }
+
+    @Override
+    public List<ListingDto> findAllAsDto(Specification<Listing> spec, Sort sort, int limit) {
+        return createQuery(spec, sort)
+            .setMaxResults(limit)
+            .getResultList();
+    }
+
+    @Override
+    public Stream<ListingDto> streamAsDto(Specification<Listing> spec, Sort sort, int fetchSize) {
+        return createQuery(spec, sort)
+            .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+            .getResultStream();
+    }
+
+    // select new ListingDto(...) from Listing where <spec> order by <sort>
+    private TypedQuery<ListingDto> createQuery(Specification<Listing> spec, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ListingDto> query = cb.createQuery(ListingDto.class);
+        Root<Listing> root = query.from(Listing.class);
+
+        query.select(cb.construct(
+            ListingDto.class,
+            root.get(Listing_.id),
+            root.get(Listing_.title),
+            root.get(Listing_.description),
+            root.get(Listing_.price),
+            root.get(Listing_.city),
+            root.get(Listing_.status),
+            root.get(Listing_.createdAt)
+        ));
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        // orderings applied by the specification itself (e.g. relevance) are kept for an unsorted Sort
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+
+        return entityManager.createQuery(query);
+    }
+
+    private long count(Specification<Listing> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Listing> root = query.from(Listing.class);
+
+        query.select(cb.count(root));
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        // orderings are irrelevant for counting
+        query.orderBy(List.of());
+
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
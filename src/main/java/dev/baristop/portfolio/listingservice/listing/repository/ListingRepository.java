@@ -1,34 +1,106 @@
 package dev.baristop.portfolio.listingservice.listing.repository;
 
+import dev.baristop.portfolio.listingservice.listing.dto.CachedListing;
 import dev.baristop.portfolio.listingservice.listing.entity.Listing;
 import dev.baristop.portfolio.listingservice.listing.entity.ListingStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ListingRepository extends JpaRepository<Listing, Long>, JpaSpecificationExecutor<Listing> {
+public interface ListingRepository
+    extends JpaRepository<Listing, Long>, JpaSpecificationExecutor<Listing>, ListingProjectionRepository {
 
     Optional<Listing> findByTitleAndDescriptionAndCity(String title, String description, String city);
 
+    @Query("""
+            SELECT new dev.baristop.portfolio.listingservice.listing.dto.CachedListing(
+                l.id, l.title, l.description, l.price, l.city, l.status, l.createdAt, l.updatedAt, o.keycloakId
+            )
+            FROM Listing l
+            JOIN l.owner o
+            WHERE l.id = :id
+        """)
+    Optional<CachedListing> findCachedListingById(@Param("id") Long id);
+
+    @Query("""
+            SELECT new dev.baristop.portfolio.listingservice.listing.dto.CachedListing(
+                l.id, l.title, l.description, l.price, l.city, l.status, l.createdAt, l.updatedAt, o.keycloakId
+            )
+            FROM Listing l
+            JOIN l.owner o
+            WHERE l.id IN :ids
+        """)
+    List<CachedListing> findCachedListingsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Returns the next chunk of IDs after <code>afterId</code> (keyset pagination by primary key) and locks the rows
+     * until the end of the transaction, so that they cannot be changed before they are updated.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(value = """
+            SELECT l.id
+            FROM Listing l
+            WHERE l.status = :status
+              AND l.createdAt < :threshold
+              AND l.id > :afterId
+            ORDER BY l.id
+        """)
+    List<Long> findNextIdsByStatusAndCreatedAtBefore(
+        @Param("status") ListingStatus status,
+        @Param("threshold") Instant threshold,
+        @Param("afterId") long afterId,
+        Limit limit
+    );
+
     @Modifying(clearAutomatically = true)
     @Query(value = """
             UPDATE Listing l
             SET l.status = :newStatus,
                 l.updatedAt = :now
-            WHERE l.status = :currentStatus
-              AND l.createdAt < :threshold
+            WHERE l.id IN :ids
+              AND l.status = :currentStatus
         """)
-    int updateStatusOlderThan(
-        @Param("threshold") Instant threshold,
+    int updateStatusByIdInAndStatus(
+        @Param("ids") Collection<Long> ids,
         @Param("currentStatus") ListingStatus currentStatus,
         @Param("newStatus") ListingStatus newStatus,
         @Param("now") Instant now
     );
+
+    /**
+     * Returns the planner's estimate of the number of rows in the listings table (PostgreSQL only).
+     * A negative value means the table has not been analyzed yet.
+     */
+    @Query(value = """
+            SELECT CAST(c.reltuples AS double precision)
+            FROM pg_class c
+            WHERE c.oid = to_regclass('listings')
+        """, nativeQuery = true)
+    Double estimateRowCount();
+
+    /**
+     * Returns the fraction of listings with the given status according to the column statistics (PostgreSQL only),
+     * or null if the status is not among the most common values or the table has not been analyzed yet.
+     */
+    @Query(value = """
+            SELECT CAST(s.most_common_freqs[array_position(CAST(CAST(s.most_common_vals AS text) AS text[]), :status)]
+                       AS double precision)
+            FROM pg_stats s
+            WHERE s.schemaname = current_schema()
+              AND s.tablename = 'listings'
+              AND s.attname = 'status'
+        """, nativeQuery = true)
+    Double estimateStatusFrequency(@Param("status") String status);
 }
@@ -4,10 +4,13 @@ import dev.baristop.portfolio.listingservice.listing.entity.Listing;
 import dev.baristop.portfolio.listingservice.listing.entity.UserFavoriteListing;
 import dev.baristop.portfolio.listingservice.security.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.Set;
 
@@ -17,4 +20,53 @@ public interface UserFavoriteListingRepository extends JpaRepository<UserFavorit
 
     @Query("SELECT f.listing.id FROM UserFavoriteListing f WHERE f.user.id = :userId")
     Set<Long> findFavoriteListingIdsByUserId(@Param("userId") Long userId);
+
+    // restricted to the given listings (e.g. a single page), so the result is bounded by the page size
+    @Query("SELECT f.listing.id FROM UserFavoriteListing f WHERE f.user.id = :userId AND f.listing.id IN :listingIds")
+    Set<Long> findFavoriteListingIdsByUserIdAndListingIdIn(
+        @Param("userId") Long userId,
+        @Param("listingIds") Collection<Long> listingIds
+    );
+
+    /**
+     * Toggles the favorite in a single statement: deletes it if present, inserts it otherwise (PostgreSQL only).
+     * <p>
+     * A concurrent insert of the same favorite does not fail on the unique constraint: the conflicting row is kept.
+     * The ID is a whole block of the pooled sequence (its upper bound), so it never collides with IDs of Hibernate.
+     *
+     * @return true if the listing is a favorite afterward
+     */
+    @Query(value = """
+            WITH deleted AS (
+                DELETE FROM user_favorite_listing
+                WHERE user_id = :userId
+                  AND listing_id = :listingId
+                RETURNING id
+            ), inserted AS (
+                INSERT INTO user_favorite_listing (id, user_id, listing_id, created_at)
+                SELECT nextval('user_favorite_listing_seq'), :userId, :listingId, :now
+                WHERE NOT EXISTS (SELECT 1 FROM deleted)
+                ON CONFLICT (user_id, listing_id) DO UPDATE SET created_at = user_favorite_listing.created_at
+                RETURNING id
+            )
+            SELECT EXISTS (SELECT 1 FROM inserted)
+        """, nativeQuery = true)
+    boolean toggle(@Param("userId") Long userId, @Param("listingId") Long listingId, @Param("now") Instant now);
+
+    /**
+     * Adds the favorite unless it already exists (PostgreSQL only).
+     *
+     * @return the number of inserted rows (0 if it already existed)
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO user_favorite_listing (id, user_id, listing_id, created_at)
+            VALUES (nextval('user_favorite_listing_seq'), :userId, :listingId, :now)
+            ON CONFLICT (user_id, listing_id) DO NOTHING
+        """, nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId, @Param("listingId") Long listingId, @Param("now") Instant now);
+
+    @Modifying
+    @Query("DELETE FROM UserFavoriteListing f WHERE f.user.id = :userId AND f.listing.id = :listingId")
+    int deleteByUserIdAndListingId(@Param("userId") Long userId, @Param("listingId") Long listingId);
 }
@@ -1,46 +1,94 @@
 package dev.baristop.portfolio.listingservice.listing.service;
 
-import dev.baristop.portfolio.listingservice.listing.entity.Listing;
+import dev.baristop.portfolio.listingservice.exception.ResourceNotFoundException;
+import dev.baristop.portfolio.listingservice.kafka.ListingLifecycleProducer;
 import dev.baristop.portfolio.listingservice.listing.entity.UserFavoriteListing;
-import dev.baristop.portfolio.listingservice.listing.repository.ListingRepository;
 import dev.baristop.portfolio.listingservice.listing.repository.UserFavoriteListingRepository;
-import dev.baristop.portfolio.listingservice.security.entity.User;
-import dev.baristop.portfolio.listingservice.security.repository.UserRepository;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
-import java.util.Optional;
+import java.time.Instant;
+import java.util.function.Supplier;
 
+/**
+ * Manages favorites of users.
+ * <p>
+ * Every operation is a single statement relying on the unique constraint on (user_id, listing_id),
+ * so concurrent requests (e.g. double clicks) neither fail nor create duplicates.
+ */
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class FavoriteService {
 
     private final UserFavoriteListingRepository favoriteRepository;
-    private final UserRepository userRepository;
-    private final ListingRepository listingRepository;
+    private final ListingLifecycleProducer listingLifecycleProducer;
 
+    /**
+     * Marks the listing as favorite if it is not one yet, otherwise removes the mark.
+     *
+     * @return true if the listing is a favorite afterward
+     *
+     * @throws ResourceNotFoundException if the listing does not exist
+     */
     @Transactional
     public boolean toggleFavorite(Long userId, Long listingId) {
-        User user = userRepository.getReferenceById(userId);
-        Listing listing = listingRepository.getReferenceById(listingId);
+        boolean isFavorite = withListingCheck(listingId, () -> favoriteRepository.toggle(userId, listingId, Instant.now()));
+        log.info("{} favorite: userId={} listingId={}", isFavorite ? "Added" : "Removed", userId, listingId);
+        listingLifecycleProducer.favoriteChanged(listingId, userId, isFavorite);
 
-        Optional<UserFavoriteListing> existing = favoriteRepository.findByUserAndListing(user, listing);
+        return isFavorite;
+    }
 
-        if (existing.isPresent()) {
-            favoriteRepository.delete(existing.get());
+    /**
+     * Marks the listing as favorite. Idempotent: adding an existing favorite is a no-op.
+     *
+     * @throws ResourceNotFoundException if the listing does not exist
+     */
+    @Transactional
+    public void addFavorite(Long userId, Long listingId) {
+        int inserted = withListingCheck(listingId, () -> favoriteRepository.insertIfAbsent(userId, listingId, Instant.now()));
+        if (inserted > 0) {
+            log.info("Added favorite: userId={} listingId={}", userId, listingId);
+            listingLifecycleProducer.favoriteChanged(listingId, userId, true);
+        }
+    }
+
+    /**
+     * Removes the favorite mark of the listing. Idempotent: removing a missing favorite is a no-op.
+     */
+    @Transactional
+    public void removeFavorite(Long userId, Long listingId) {
+        if (favoriteRepository.deleteByUserIdAndListingId(userId, listingId) > 0) {
             log.info("Removed favorite: userId={} listingId={}", userId, listingId);
+            listingLifecycleProducer.favoriteChanged(listingId, userId, false);
+        }
+    }
 
-            return false;
-        } else {
-            favoriteRepository.save(
-                new UserFavoriteListing(user, listing)
-            );
-            log.info("Added favorite: userId={} listingId={}", userId, listingId);
+    // the foreign key on listing_id is the existence check, saving a lookup per request;
+    // any other violation (e.g. of the foreign key on user_id) is not a missing listing and is rethrown
+    private <T> T withListingCheck(Long listingId, Supplier<T> statement) {
+        try {
+            return statement.get();
+        } catch (DataIntegrityViolationException e) {
+            if (violatedConstraint(e).equalsIgnoreCase(UserFavoriteListing.LISTING_FOREIGN_KEY)) {
+                throw new ResourceNotFoundException("Listing with ID " + listingId + " not found");
+            }
+            throw e;
+        }
+    }
 
-            return true;
+    private static String violatedConstraint(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                return violation.getConstraintName();
+            }
         }
+
+        return "";
     }
 }
@@ -0,0 +1,123 @@
+package dev.baristop.portfolio.listingservice.listing.service;
+
+import dev.baristop.portfolio.listingservice.cache.TwoLevelCache;
+import dev.baristop.portfolio.listingservice.cache.TwoLevelCacheManager;
+import dev.baristop.portfolio.listingservice.listing.dto.CachedListing;
+import dev.baristop.portfolio.listingservice.listing.entity.Listing;
+import dev.baristop.portfolio.listingservice.listing.mapper.ListingMapper;
+import dev.baristop.portfolio.listingservice.listing.repository.ListingRepository;
+import jakarta.annotation.Nullable;
+import lombok.AllArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Cached access to single listings by ID, backing {@link ListingService#getListingById}.
+ * <p>
+ * Listings of any status are cached as {@link CachedListing}, independently of the caller, so visibility must be
+ * checked on every read (see {@link CachedListing#isVisibleTo}).
+ * Missing IDs are cached as well (negative caching, see <code>app.cache.negative-ttl</code>), so repeated requests for
+ * deleted or made-up IDs do not reach the database.
+ * <p>
+ * Changes are written to the cache after the surrounding transaction has committed, so the cache never holds state
+ * that is not (yet) visible in the database.
+ */
+@Service
+@AllArgsConstructor
+public class ListingCacheService {
+
+    private final ListingRepository listingRepository;
+    private final ListingMapper listingMapper;
+    private final TwoLevelCacheManager cacheManager;
+
+    /**
+     * @return the listing, or null if it does not exist
+     */
+    @Nullable
+    @Cacheable(value = "listings", key = "#listingId", sync = true)
+    public CachedListing findListing(Long listingId) {
+        return listingRepository.findCachedListingById(listingId).orElse(null);
+    }
+
+    /**
+     * Returns the listings with the given IDs: cached ones are read with one multi-key lookup,
+     * all others are loaded with a single query and written back to the cache (missing IDs as tombstones).
+     *
+     * @return the existing listings by ID, in the order of the IDs
+     */
+    public Map<Long, CachedListing> findListings(Collection<Long> listingIds) {
+        return cache().getAll(
+            listingIds,
+            missingIds -> listingRepository.findCachedListingsByIdIn(missingIds).stream()
+                .collect(Collectors.toMap(cachedListing -> cachedListing.listing().getId(), Function.identity()))
+        );
+    }
+
+    /**
+     * Writes the current state of a changed listing to the cache once the current transaction has committed.
+     * The listing must have been flushed, so that its <code>updatedAt</code> is current.
+     *
+     * @return the listing as it is going to be cached
+     */
+    public CachedListing update(Listing listing) {
+        Long listingId = listing.getId();
+        CachedListing cachedListing = new CachedListing(
+            listingMapper.toDto(listing),
+            listing.getOwner().getKeycloakId(),
+            listing.getUpdatedAt()
+        );
+        afterCommit(() -> cache().put(listingId, cachedListing));
+
+        return cachedListing;
+    }
+
+    /**
+     * Replaces the cached listing with a tombstone, i.e. a cached "not found", once the current transaction has
+     * committed.
+     */
+    public void markDeleted(Long listingId) {
+        afterCommit(() -> cache().put(listingId, null));
+    }
+
+    /**
+     * Drops a cached entry once the current transaction has committed,
+     * e.g. a tombstone for an ID that has been requested before the listing was created.
+     */
+    public void evict(Long listingId) {
+        afterCommit(() -> cache().evict(listingId));
+    }
+
+    /**
+     * Drops the cached entries of many listings at once, e.g. after a bulk update.
+     */
+    public void evictAll(Collection<Long> listingIds) {
+        cache().evictAll(listingIds);
+    }
+
+    private TwoLevelCache cache() {
+        return cacheManager.getCache("listings");
+    }
+
+    // until the commit, other transactions (and thus cache loads) still see the previous state, and a rollback
+    // must not leave the cache ahead of the database; without a transaction the write happens right away
+    private static void afterCommit(Runnable cacheWrite) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cacheWrite.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cacheWrite.run();
+            }
+        });
+    }
+}
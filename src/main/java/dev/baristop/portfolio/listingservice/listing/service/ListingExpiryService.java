@@ -0,0 +1,143 @@
+package dev.baristop.portfolio.listingservice.listing.service;
+
+import dev.baristop.portfolio.listingservice.command.entity.JobCheckpoint;
+import dev.baristop.portfolio.listingservice.command.repository.JobCheckpointRepository;
+import dev.baristop.portfolio.listingservice.kafka.ListingLifecycleProducer;
+import dev.baristop.portfolio.listingservice.listing.entity.ListingStatus;
+import dev.baristop.portfolio.listingservice.listing.repository.ListingRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Disables expired listings (APPROVED → INACTIVE) in chunks.
+ * <p>
+ * Listings are processed in keyset order by ID, every chunk in its own transaction, so row locks are held briefly and
+ * the WAL grows steadily instead of in one burst. Each chunk stores its last ID as {@link JobCheckpoint}: a killed run
+ * resumes after the last committed chunk, and the checkpoint is removed once a run completes. The checkpoint stores the
+ * threshold of its run: a run with another threshold (e.g. on the next day, or for another age) ignores it and starts
+ * over, so that it does not skip listings below the checkpoint that only expired by its own threshold.
+ * <p>
+ * After each commit, the cached entries of the chunk are evicted at once (see {@link ListingCacheService#evictAll}).
+ */
+@Service
+@Slf4j
+public class ListingExpiryService {
+
+    static final String JOB_NAME = "listings:disable";
+
+    private final ListingRepository listingRepository;
+    private final ListingCacheService listingCacheService;
+    private final ListingLifecycleProducer listingLifecycleProducer;
+    private final JobCheckpointRepository jobCheckpointRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public ListingExpiryService(
+        ListingRepository listingRepository,
+        ListingCacheService listingCacheService,
+        ListingLifecycleProducer listingLifecycleProducer,
+        JobCheckpointRepository jobCheckpointRepository,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.listingRepository = listingRepository;
+        this.listingCacheService = listingCacheService;
+        this.listingLifecycleProducer = listingLifecycleProducer;
+        this.jobCheckpointRepository = jobCheckpointRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Disables approved listings created before the start of the day <code>days</code> ago.
+     *
+     * @param days      the minimum age in days
+     * @param chunkSize the number of listings per transaction
+     *
+     * @return the number of listings disabled by this run
+     */
+    public int disableListingsOlderThanDays(int days, int chunkSize) {
+        Instant threshold = threshold(days);
+
+        long lastId = 0;
+        JobCheckpoint checkpoint = jobCheckpointRepository.findById(JOB_NAME).orElse(null);
+        if (checkpoint != null && threshold.equals(checkpoint.getThreshold())) {
+            lastId = checkpoint.getLastId();
+            log.info("Resuming {} after listing id={}", JOB_NAME, lastId);
+        } else if (checkpoint != null) {
+            log.info("Ignoring {}, this run disables listings created before {}", checkpoint, threshold);
+        }
+
+        long start = System.nanoTime();
+        int total = 0;
+        Chunk chunk;
+        do {
+            long afterId = lastId;
+            chunk = transactionTemplate.execute(status -> disableChunk(threshold, afterId, chunkSize));
+            if (chunk.listingIds().isEmpty()) {
+                break;
+            }
+
+            // after the commit, so that no reader caches the old state again
+            listingCacheService.evictAll(chunk.listingIds());
+
+            lastId = chunk.listingIds().getLast();
+            total += chunk.disabled();
+            double seconds = Math.max(System.nanoTime() - start, 1) / 1_000_000_000.0;
+            log.info("Disabled {} listings up to id={} ({} rows/s)", total, lastId, Math.round(total / seconds));
+        } while (chunk.listingIds().size() == chunkSize);
+
+        transactionTemplate.executeWithoutResult(status -> jobCheckpointRepository.deleteById(JOB_NAME));
+
+        return total;
+    }
+
+    // the start of the day, the given number of days ago
+    static Instant threshold(int days) {
+        return LocalDate.now()
+            .minusDays(days)
+            .atStartOfDay(ZoneId.systemDefault())
+            .toInstant();
+    }
+
+    private Chunk disableChunk(Instant threshold, long afterId, int chunkSize) {
+        // the selected rows stay locked until the commit, so the status guard of the update matches all of them
+        List<Long> listingIds = listingRepository.findNextIdsByStatusAndCreatedAtBefore(
+            ListingStatus.APPROVED,
+            threshold,
+            afterId,
+            Limit.of(chunkSize)
+        );
+        if (listingIds.isEmpty()) {
+            return new Chunk(listingIds, 0);
+        }
+
+        int disabled = listingRepository.updateStatusByIdInAndStatus(
+            listingIds,
+            ListingStatus.APPROVED,
+            ListingStatus.INACTIVE,
+            Instant.now()
+        );
+        if (disabled != listingIds.size()) {
+            throw new IllegalStateException(
+                "Disabled %d of %d locked listings after id=%d".formatted(disabled, listingIds.size(), afterId)
+            );
+        }
+        listingIds.forEach(listingId -> listingLifecycleProducer.statusChanged(listingId, ListingStatus.INACTIVE));
+        jobCheckpointRepository.save(new JobCheckpoint(JOB_NAME, listingIds.getLast(), threshold));
+
+        return new Chunk(listingIds, disabled);
+    }
+
+    /**
+     * @param listingIds the IDs selected and disabled by the chunk
+     * @param disabled   the number of rows changed by the update
+     */
+    private record Chunk(List<Long> listingIds, int disabled) {
+    }
+}
@@ -0,0 +1,91 @@
+package dev.baristop.portfolio.listingservice.listing.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import dev.baristop.portfolio.listingservice.listing.dto.ListingDto;
+import dev.baristop.portfolio.listingservice.listing.dto.ListingQueryRequestDto;
+import dev.baristop.portfolio.listingservice.listing.entity.Listing_;
+import dev.baristop.portfolio.listingservice.listing.repository.ListingRepository;
+import dev.baristop.portfolio.listingservice.listing.specification.ListingSpecification;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exports listings matching the filters of {@link ListingQueryRequestDto} as NDJSON (one {@link ListingDto} per line),
+ * ordered by ID.
+ * <p>
+ * The listings are read as DTO projections through a forward-only cursor, {@value #FETCH_SIZE} rows at a time, and
+ * written to the output as they arrive. No entities are loaded, so the persistence context stays empty, and neither
+ * OFFSET nor COUNT queries are run: heap usage does not depend on the number of exported listings.
+ */
+@Service
+@Slf4j
+public class ListingExportService {
+
+    static final int FETCH_SIZE = 1000;
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private final ListingRepository listingRepository;
+    private final ObjectWriter writer;
+
+    public ListingExportService(ListingRepository listingRepository, ObjectMapper objectMapper) {
+        this.listingRepository = listingRepository;
+        // the generator's buffer is written out when full, not after every listing
+        this.writer = objectMapper.writerFor(ListingDto.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Writes the matching listings to the output, which is flushed but not closed. Pagination parameters are ignored.
+     *
+     * @param filters the filters, see {@link ListingSpecification#withFilters}
+     * @param out     the output
+     * @param gzip    whether to gzip-compress the output
+     *
+     * @return the number of exported listings
+     */
+    @Transactional(readOnly = true)
+    public long exportListings(ListingQueryRequestDto filters, OutputStream out, boolean gzip) throws IOException {
+        long start = System.nanoTime();
+        long count = 0;
+
+        OutputStream target = gzip ? new GZIPOutputStream(out, GZIP_BUFFER_SIZE) : out;
+        try (
+            Stream<ListingDto> listings = listingRepository.streamAsDto(
+                ListingSpecification.withFilters(filters),
+                Sort.by(Listing_.ID),
+                FETCH_SIZE
+            );
+            JsonGenerator generator = writer.createGenerator(target)
+        ) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // one listing per line instead of Jackson's space between root values
+            generator.setRootValueSeparator(null);
+
+            for (Iterator<ListingDto> iterator = listings.iterator(); iterator.hasNext(); ) {
+                writer.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+                count++;
+            }
+        }
+
+        if (target instanceof GZIPOutputStream gzipTarget) {
+            gzipTarget.finish();
+        }
+        out.flush();
+
+        double seconds = Math.max(System.nanoTime() - start, 1) / 1_000_000_000.0;
+        log.info("Exported {} listings ({} rows/s)", count, Math.round(count / seconds));
+
+        return count;
+    }
+}
@@ -0,0 +1,241 @@
+package dev.baristop.portfolio.listingservice.listing.service;
+
+import dev.baristop.portfolio.listingservice.listing.dto.ListingCreateRequest;
+import dev.baristop.portfolio.listingservice.listing.dto.ListingImportFormat;
+import dev.baristop.portfolio.listingservice.listing.dto.ListingImportResult;
+import dev.baristop.portfolio.listingservice.listing.entity.Listing;
+import dev.baristop.portfolio.listingservice.listing.entity.ListingStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk import of listings with the PostgreSQL COPY protocol (PostgreSQL only).
+ * <p>
+ * The input is streamed with <code>COPY FROM STDIN</code> into a temporary staging table and then merged into
+ * <code>listings</code> with a single <code>INSERT ... SELECT</code>, which resolves the owners by Keycloak ID.
+ * Neither step holds rows in memory, and no entity is loaded.
+ * <p>
+ * Fields, named like in the API: <code>ownerKeycloakId</code>, <code>title</code>, <code>description</code>,
+ * <code>price</code>, <code>city</code> and <code>status</code> (optional, PENDING by default). Rows of unknown owners,
+ * with an invalid status or breaking the constraints of {@link ListingCreateRequest} (missing fields, length of the
+ * texts, negative price) are skipped; a malformed price fails the whole import, which runs in one transaction.
+ * <p>
+ * Imported listings are not published as lifecycle events, the partner inventories are reconciled as a whole.
+ */
+@Service
+@Slf4j
+public class ListingImportService {
+
+    // the field names of the input, mapped to the columns of the staging table
+    private static final Map<String, String> COLUMNS = new LinkedHashMap<>();
+
+    static {
+        COLUMNS.put("ownerKeycloakId", "owner_keycloak_id");
+        COLUMNS.put("title", "title");
+        COLUMNS.put("description", "description");
+        COLUMNS.put("price", "price");
+        COLUMNS.put("city", "city");
+        COLUMNS.put("status", "status");
+    }
+
+    // the bounds of title, description and city, in the order of the MERGE
+    private static final int[] MAX_TEXT_LENGTHS = {
+        ListingCreateRequest.MAX_TITLE_LENGTH,
+        ListingCreateRequest.MAX_DESCRIPTION_LENGTH,
+        ListingCreateRequest.MAX_CITY_LENGTH
+    };
+
+    private static final String STAGING_TABLE = "listing_import";
+    private static final String JSON_STAGING_TABLE = "listing_import_json";
+
+    // control characters as quote and delimiter, so that each line is copied verbatim into one column
+    private static final String COPY_LINES = " FROM STDIN WITH (FORMAT csv, QUOTE E'\\x01', DELIMITER E'\\x02')";
+
+    // IDs are taken from listings_seq in blocks of Listing.ID_ALLOCATION_SIZE, like Hibernate's pooled optimizer does:
+    // one nextval() per block instead of per row, and no ID is used twice by imports and the application
+    private static final String MERGE = """
+        WITH rows AS (
+            SELECT s.title, s.description, CAST(s.price AS DECIMAL) AS price, s.city,
+                   coalesce(s.status, 'PENDING') AS status, u.id AS owner_id,
+                   row_number() OVER (ORDER BY s.ordinal) - 1 AS row_index
+            FROM %1$s s
+            JOIN users u ON u.keycloak_id = s.owner_keycloak_id
+            WHERE coalesce(s.status, 'PENDING') = ANY (?)
+              AND char_length(s.title) BETWEEN ? AND ?
+              AND char_length(s.description) BETWEEN ? AND ?
+              AND char_length(s.city) BETWEEN ? AND ?
+              AND CAST(s.price AS DECIMAL) >= 0
+        ),
+        blocks AS (
+            SELECT block - 1 AS block, nextval('listings_seq') AS last_id
+            FROM generate_series(1, CAST(ceil((SELECT count(*) FROM rows) / %2$d.0) AS INTEGER)) block
+        )
+        INSERT INTO listings (id, title, description, price, city, status, owner_id, created_at, updated_at)
+        SELECT b.last_id - %2$d + 1 + r.row_index %% %2$d, r.title, r.description, r.price, r.city, r.status,
+               r.owner_id, localtimestamp, localtimestamp
+        FROM rows r
+        JOIN blocks b ON b.block = r.row_index / %2$d
+        ORDER BY r.row_index
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public ListingImportService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Imports the listings of the input in one transaction.
+     *
+     * @param input  the input, positioned at its start (at the header row of a CSV file)
+     * @param format the format of the input
+     *
+     * @return the number of read and imported rows
+     */
+    public ListingImportResult importListings(BufferedReader input, ListingImportFormat format) {
+        return transactionTemplate.execute(status -> jdbcTemplate.execute((Connection connection) -> {
+            try {
+                return importListings(connection, input, format);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read the listings to import", e);
+            }
+        }));
+    }
+
+    private ListingImportResult importListings(Connection connection, BufferedReader input, ListingImportFormat format)
+        throws SQLException, IOException {
+        long start = System.nanoTime();
+
+        createStagingTable(connection, STAGING_TABLE, String.join(" TEXT, ", COLUMNS.values()) + " TEXT");
+        long read = switch (format) {
+            case CSV -> copyCsv(connection, input);
+            case NDJSON -> copyNdjson(connection, input);
+        };
+        log.info("Staged {} listings ({} rows/s)", read, rowsPerSecond(read, start));
+
+        long imported;
+        try (PreparedStatement statement = connection.prepareStatement(MERGE.formatted(STAGING_TABLE, Listing.ID_ALLOCATION_SIZE))) {
+            Array statuses = connection.createArrayOf(
+                "text",
+                Arrays.stream(ListingStatus.values()).map(Enum::name).toArray()
+            );
+            statement.setArray(1, statuses);
+            // NULL fails the comparisons as well, so rows without these fields are skipped
+            int index = 2;
+            for (int maxLength : MAX_TEXT_LENGTHS) {
+                statement.setInt(index++, ListingCreateRequest.MIN_TEXT_LENGTH);
+                statement.setInt(index++, maxLength);
+            }
+            imported = statement.executeLargeUpdate();
+        }
+        logUnknownOwners(connection);
+        execute(connection, "DROP TABLE " + STAGING_TABLE);
+
+        log.info(
+            "Imported {} of {} listings, skipped {} ({} rows/s)",
+            imported, read, read - imported, rowsPerSecond(read, start)
+        );
+
+        return new ListingImportResult(read, imported);
+    }
+
+    private long copyCsv(Connection connection, BufferedReader input) throws SQLException, IOException {
+        String header = input.readLine();
+        if (header == null) {
+            return 0;
+        }
+
+        List<String> columns = new ArrayList<>();
+        for (String field : header.split(",")) {
+            String column = COLUMNS.get(field.strip().replace("\"", ""));
+            if (column == null) {
+                throw new IllegalArgumentException("Unknown import column: " + field.strip());
+            }
+            columns.add(column);
+        }
+
+        return copyIn(
+            connection,
+            "COPY " + STAGING_TABLE + " (" + String.join(", ", columns) + ") FROM STDIN WITH (FORMAT csv)",
+            input
+        );
+    }
+
+    private long copyNdjson(Connection connection, BufferedReader input) throws SQLException, IOException {
+        createStagingTable(connection, JSON_STAGING_TABLE, "line TEXT");
+        long lines = copyIn(connection, "COPY " + JSON_STAGING_TABLE + " (line)" + COPY_LINES, input);
+
+        List<String> fields = COLUMNS.keySet().stream().map(field -> "doc ->> '" + field + "'").toList();
+        execute(
+            connection,
+            "INSERT INTO " + STAGING_TABLE + " (" + String.join(", ", COLUMNS.values()) + ") "
+                + "SELECT " + String.join(", ", fields) + " "
+                + "FROM (SELECT CAST(line AS JSONB) AS doc, ordinal FROM " + JSON_STAGING_TABLE + " WHERE line <> '') l "
+                + "ORDER BY ordinal"
+        );
+        execute(connection, "DROP TABLE " + JSON_STAGING_TABLE);
+
+        return lines;
+    }
+
+    private static long copyIn(Connection connection, String sql, BufferedReader input) throws SQLException, IOException {
+        return connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql, input);
+    }
+
+    // temporary tables are not WAL-logged, and are dropped with the transaction even if the import fails;
+    // the ordinal keeps the order of the input, so listing IDs follow it
+    private static void createStagingTable(Connection connection, String table, String columns) throws SQLException {
+        execute(
+            connection,
+            "CREATE TEMPORARY TABLE " + table + " (ordinal BIGINT GENERATED ALWAYS AS IDENTITY, " + columns + ") "
+                + "ON COMMIT DROP"
+        );
+    }
+
+    private static void logUnknownOwners(Connection connection) throws SQLException {
+        String sql = "SELECT DISTINCT s.owner_keycloak_id FROM " + STAGING_TABLE + " s "
+            + "WHERE NOT EXISTS (SELECT 1 FROM users u WHERE u.keycloak_id = s.owner_keycloak_id) LIMIT 10";
+        try (PreparedStatement statement = connection.prepareStatement(sql);
+             ResultSet resultSet = statement.executeQuery()) {
+            List<String> owners = new ArrayList<>();
+            while (resultSet.next()) {
+                owners.add(resultSet.getString(1));
+            }
+            if (!owners.isEmpty()) {
+                log.warn("Skipped listings of unknown owners, e.g. {}", owners);
+            }
+        }
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static long rowsPerSecond(long rows, long start) {
+        double seconds = Math.max(System.nanoTime() - start, 1) / 1_000_000_000.0;
+        return Math.round(rows / seconds);
+    }
+}
@@ -1,14 +1,17 @@
 package dev.baristop.portfolio.listingservice.listing.service;
 
+import dev.baristop.portfolio.listingservice.dto.CursorPage;
+import dev.baristop.portfolio.listingservice.dto.SlicePage;
 import dev.baristop.portfolio.listingservice.exception.InvalidListingStateException;
 import dev.baristop.portfolio.listingservice.exception.ResourceNotFoundException;
+import dev.baristop.portfolio.listingservice.kafka.ListingLifecycleProducer;
+import dev.baristop.portfolio.listingservice.listing.dto.CachedListing;
 import dev.baristop.portfolio.listingservice.listing.dto.ListingCreateRequest;
+import dev.baristop.portfolio.listingservice.listing.dto.ListingCursor;
 import dev.baristop.portfolio.listingservice.listing.dto.ListingDto;
 import dev.baristop.portfolio.listingservice.listing.dto.ListingQueryRequestDto;
 import dev.baristop.portfolio.listingservice.listing.dto.ListingUpdateRequest;
 import dev.baristop.portfolio.listingservice.listing.entity.Listing;
-import dev.baristop.portfolio.listingservice.listing.entity.ListingStatus;
-import dev.baristop.portfolio.listingservice.listing.mapper.ListingMapper;
 import dev.baristop.portfolio.listingservice.listing.repository.ListingRepository;
 import dev.baristop.portfolio.listingservice.listing.repository.UserFavoriteListingRepository;
 import dev.baristop.portfolio.listingservice.listing.specification.ListingSpecification;
@@ -18,21 +21,23 @@ import dev.baristop.portfolio.listingservice.util.ValidationUtil;
 import jakarta.annotation.Nullable;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
 import java.time.Instant;
-import java.time.LocalDate;
-import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 
 @Service
@@ -41,12 +46,15 @@ import java.util.Set;
 public class ListingService {
 
     private final ListingRepository listingRepository;
+    private final ListingCacheService listingCacheService;
     private final UserFavoriteListingRepository favoriteRepository;
     private final ValidationUtil validationUtil;
-    private final ListingMapper listingMapper;
+    private final ListingLifecycleProducer listingLifecycleProducer;
 
     private static final Set<String> ALLOWED_SORT_FIELDS = Set.of("id", "title", "price");
 
+    public static final int MAX_BATCH_SIZE = 100;
+
     @Transactional
     public Listing createListing(
         ListingCreateRequest listingCreateRequest,
@@ -62,12 +70,15 @@ public class ListingService {
 
         listingRepository.save(listing);
         log.info("Created new listing with id={}", listing.getId());
+        listingLifecycleProducer.listingCreated(listing);
+
+        // the ID may have been requested (and cached as missing) before
+        listingCacheService.evict(listing.getId());
 
         return listing;
     }
 
     @Transactional
-    @CachePut(value = "listings", key = "#listingId")
     public ListingDto updateListing(Long listingId, ListingUpdateRequest updateRequest, User user) {
         Listing existingListing = listingRepository.findById(listingId)
             .orElseThrow(() -> new ResourceNotFoundException("Listing with ID " + listingId + " not found"));
@@ -81,20 +92,23 @@ public class ListingService {
         }
 
         validationUtil.validate(updateRequest);
+        ListingLifecycleProducer.ListingFields previous = ListingLifecycleProducer.ListingFields.of(existingListing);
 
         existingListing.setTitle(updateRequest.getTitle());
         existingListing.setDescription(updateRequest.getDescription());
         existingListing.setPrice(updateRequest.getPrice());
         existingListing.setCity(updateRequest.getCity());
 
-        listingRepository.save(existingListing);
+        // flushed, so that updatedAt is set before the listing is cached
+        listingRepository.saveAndFlush(existingListing);
         log.info("Updated listing with id={}", listingId);
+        // enqueued while the update holds the row lock, so that the events of concurrent changes follow it
+        listingLifecycleProducer.listingUpdated(previous, existingListing);
 
-        return listingMapper.toDto(existingListing);
+        return listingCacheService.update(existingListing).listing();
     }
 
     @Transactional
-    @CacheEvict(value = "listings", key = "#listingId")
     public void deleteListing(Long listingId, UserPrincipal userPrincipal) {
         Listing existingListing = listingRepository.findById(listingId)
             .orElseThrow(() -> new ResourceNotFoundException("Listing with ID " + listingId + " not found"));
@@ -105,8 +119,13 @@ public class ListingService {
             throw new AccessDeniedException("You are not the owner of this listing");
         }
 
+        // flushed, so that the event is enqueued while the delete holds the row lock (like updates)
         listingRepository.delete(existingListing);
+        listingRepository.flush();
         log.info("Deleted listing with id={}", listingId);
+        listingLifecycleProducer.listingDeleted(listingId);
+
+        listingCacheService.markDeleted(listingId);
     }
 
     /**
@@ -114,6 +133,9 @@ public class ListingService {
      * <p>
      * Only non-PENDING listings are visible to the public.
      * Owners and admins can view all listings, including PENDING ones.
+     * <p>
+     * The listing is read via {@link ListingCacheService}, which caches listings of any status (and missing IDs).
+     * The visibility check runs on every call, using the owner stored alongside the cached listing.
      *
      * @param listingId     the ID of the listing to retrieve
      * @param userPrincipal the currently authenticated user, or null if unauthenticated
@@ -122,21 +144,56 @@ public class ListingService {
      *
      * @throws ResourceNotFoundException if the listing does not exist or is pending and the user is not authorized
      */
-    @Transactional(readOnly = true)
-    @Cacheable(value = "listings", key = "#listingId")
     public ListingDto getListingById(Long listingId, @Nullable UserPrincipal userPrincipal) {
+        return getVisibleListing(listingId, userPrincipal).listing();
+    }
+
+    /**
+     * Like {@link #getListingById}, but returns the cached listing including its validators (see
+     * {@link CachedListing#eTag()}), so that conditional requests can be answered without building a response.
+     *
+     * @throws ResourceNotFoundException if the listing does not exist or is pending and the user is not authorized
+     */
+    public CachedListing getVisibleListing(Long listingId, @Nullable UserPrincipal userPrincipal) {
         log.info("Getting listing with id={}", listingId);
 
-        Listing listing = listingRepository.findById(listingId)
-            .orElseThrow(() -> new ResourceNotFoundException("Listing with ID " + listingId + " not found"));
+        CachedListing cachedListing = listingCacheService.findListing(listingId);
 
-        boolean isOwner = userPrincipal != null && listing.isOwner(userPrincipal);
-        boolean isAdmin = userPrincipal != null && userPrincipal.isAdmin();
-        if (listing.isStatusPending() && !isOwner && !isAdmin) {
+        // pending listings are reported as missing to users who must not see them
+        if (cachedListing == null || !cachedListing.isVisibleTo(userPrincipal)) {
             throw new ResourceNotFoundException("Listing with ID " + listingId + " not found");
         }
 
-        return listingMapper.toDto(listing);
+        return cachedListing;
+    }
+
+    /**
+     * Returns the listings identified by the given IDs, with the same visibility rules as {@link #getListingById}.
+     * <p>
+     * Missing listings and listings the user must not see are omitted, duplicate IDs are returned once.
+     * All listings are read from the cache with one lookup, misses are loaded with a single query.
+     *
+     * @param listingIds    the IDs of the listings to retrieve, at most {@link #MAX_BATCH_SIZE}
+     * @param userPrincipal the currently authenticated user, or null if unauthenticated
+     *
+     * @return the visible listings, in the order of the IDs
+     *
+     * @throws IllegalArgumentException if more than {@link #MAX_BATCH_SIZE} IDs are requested
+     */
+    public List<ListingDto> getListingsByIds(List<Long> listingIds, @Nullable UserPrincipal userPrincipal) {
+        Set<Long> uniqueIds = new LinkedHashSet<>(listingIds);
+        if (uniqueIds.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_SIZE + " listing IDs can be requested at once");
+        }
+
+        if (uniqueIds.isEmpty()) {
+            return List.of();
+        }
+
+        return listingCacheService.findListings(uniqueIds).values().stream()
+            .filter(cachedListing -> cachedListing.isVisibleTo(userPrincipal))
+            .map(CachedListing::listing)
+            .toList();
     }
 
     @Transactional(readOnly = true)
@@ -144,53 +201,208 @@ public class ListingService {
         ListingQueryRequestDto request,
         @Nullable User currentUser
     ) {
+        Sort sort = buildSort(request);
+
+        // Build Specification using the unified DTO
+        Specification<Listing> spec = ListingSpecification.withFilters(request);
+
+        // full-text search results are ranked by relevance instead of sortBy
+        if (request.getQ() != null && !request.getQ().isBlank()) {
+            spec = spec.and(ListingSpecification.orderByRelevance(request.getQ()));
+            sort = Sort.unsorted();
+        }
+
+        Pageable pageable = PageRequest.of(request.calculateZeroBasedPage(), request.getSize(), sort);
+
+        Page<ListingDto> listingPage = listingRepository.findAllAsDto(spec, pageable);
+
+        return new PageImpl<>(
+            withFavoriteFlag(listingPage.getContent(), currentUser),
+            listingPage.getPageable(),
+            listingPage.getTotalElements()
+        );
+    }
+
+    /**
+     * Returns listings using page/size pagination without a count query.
+     * <p>
+     * One additional row is fetched to determine whether a next page exists, so the cost of a page no longer
+     * includes counting all matching listings. If requested, an estimated total is taken from the planner statistics;
+     * it is only available for status-only queries (such as the public listing), since statistics cannot
+     * estimate arbitrary filters reliably.
+     *
+     * @param request     the query parameters
+     * @param currentUser the currently authenticated user, or null if unauthenticated
+     *
+     * @return the page of listings including whether a next page exists
+     *
+     * @throws IllegalArgumentException if the sort field is invalid
+     */
+    @Transactional(readOnly = true)
+    public SlicePage<ListingDto> getAllListingsAsSlice(
+        ListingQueryRequestDto request,
+        @Nullable User currentUser
+    ) {
+        Sort sort = buildSort(request);
+
+        Specification<Listing> spec = ListingSpecification.withFilters(request);
+
+        // full-text search results are ranked by relevance instead of sortBy
+        if (request.getQ() != null && !request.getQ().isBlank()) {
+            spec = spec.and(ListingSpecification.orderByRelevance(request.getQ()));
+            sort = Sort.unsorted();
+        }
+
+        Pageable pageable = PageRequest.of(request.calculateZeroBasedPage(), request.getSize(), sort);
+
+        Slice<ListingDto> listingSlice = listingRepository.findSliceAsDto(spec, pageable);
+
+        return new SlicePage<>(
+            withFavoriteFlag(listingSlice.getContent(), currentUser),
+            listingSlice.getNumber() + 1,
+            request.getSize(),
+            listingSlice.hasNext(),
+            request.isEstimateTotal() ? estimateTotalElements(request) : null
+        );
+    }
+
+    /**
+     * Returns listings using keyset (seek) pagination on (sortBy, id).
+     * <p>
+     * Unlike {@link #getAllListings}, no OFFSET and no count query is executed, so every page costs the same
+     * regardless of how deep the client has scrolled. The filters and the sort field whitelist are the same.
+     *
+     * @param request     the query parameters, optionally carrying a cursor from a previous response
+     * @param currentUser the currently authenticated user, or null if unauthenticated
+     *
+     * @return the page of listings including the cursors to the neighbouring pages
+     *
+     * @throws IllegalArgumentException if the sort field is invalid or the cursor is malformed or does not match the sorting
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<ListingDto> getAllListingsByCursor(
+        ListingQueryRequestDto request,
+        @Nullable User currentUser
+    ) {
+        Sort sort = buildSort(request);
+
+        ListingCursor cursor = null;
+        if (request.getCursor() != null && !request.getCursor().isBlank()) {
+            cursor = ListingCursor.decode(request.getCursor());
+            if (!cursor.matches(request.getSortBy(), request.getSortDir())) {
+                throw new IllegalArgumentException("Cursor does not match the requested sorting");
+            }
+        }
+
+        boolean ascending = request.getSortDir().equalsIgnoreCase("asc");
+        boolean backward = cursor != null && cursor.backward();
+
+        Specification<Listing> spec = ListingSpecification.withFilters(request)
+            .and(ListingSpecification.hasSortValue(request.getSortBy()));
+        if (cursor != null) {
+            spec = spec.and(ListingSpecification.seek(cursor, ascending));
+        }
+
+        // scrolling backward: fetch the preceding listings in reverse order, then restore the requested order.
+        // One additional listing is fetched to determine whether there are more listings in scroll direction.
+        List<ListingDto> fetched = listingRepository.findAllAsDto(
+            spec,
+            backward ? reverse(sort) : sort,
+            request.getSize() + 1
+        );
+        boolean hasMore = fetched.size() > request.getSize();
+
+        List<ListingDto> listings = new ArrayList<>(hasMore ? fetched.subList(0, request.getSize()) : fetched);
+        if (backward) {
+            Collections.reverse(listings);
+        }
+
+        boolean hasNextPage = backward || hasMore;
+        boolean hasPrevPage = backward ? hasMore : cursor != null;
+
+        String nextCursor = hasNextPage && !listings.isEmpty()
+            ? ListingCursor.after(listings.getLast(), request.getSortBy(), request.getSortDir()).encode()
+            : null;
+        String prevCursor = hasPrevPage && !listings.isEmpty()
+            ? ListingCursor.before(listings.getFirst(), request.getSortBy(), request.getSortDir()).encode()
+            : null;
+
+        return new CursorPage<>(
+            withFavoriteFlag(listings, currentUser),
+            request.getSize(),
+            nextCursor,
+            prevCursor
+        );
+    }
+
+    // validates the sort field against the whitelist and builds the sort, using the id as tie-breaker
+    private static Sort buildSort(ListingQueryRequestDto request) {
         if (!ALLOWED_SORT_FIELDS.contains(request.getSortBy())) {
             throw new IllegalArgumentException(
                 "Invalid sortBy field: " + request.getSortBy()
             );
         }
 
-        // Build sorting
-        Sort sort = request.getSortDir().equalsIgnoreCase("asc")
-            ? Sort.by(request.getSortBy()).ascending()
-            : Sort.by(request.getSortBy()).descending();
+        Sort.Direction direction = request.getSortDir().equalsIgnoreCase("asc")
+            ? Sort.Direction.ASC
+            : Sort.Direction.DESC;
 
-        Pageable pageable = PageRequest.of(request.calculateZeroBasedPage(), request.getSize(), sort);
+        Sort sort = Sort.by(direction, request.getSortBy());
 
-        // Build Specification using the unified DTO
-        Specification<Listing> spec = ListingSpecification.withFilters(request);
+        return request.getSortBy().equals("id")
+            ? sort
+            : sort.and(Sort.by(direction, "id"));
+    }
 
-        Page<Listing> listingPage = listingRepository.findAll(spec, pageable);
+    // estimated number of listings matching the request, only available when filtering by status alone
+    private Long estimateTotalElements(ListingQueryRequestDto request) {
+        boolean statusOnly = request.getOwner() == null
+            && request.getFavoritedBy() == null
+            && !StringUtils.hasText(request.getQ())
+            && !StringUtils.hasText(request.getTitle())
+            && !StringUtils.hasText(request.getDescription())
+            && !StringUtils.hasText(request.getCity())
+            && request.getPriceFrom() == null
+            && request.getPriceTo() == null;
+        if (!statusOnly) {
+            return null;
+        }
 
-        // add "favorite" flag for favorized listings of currentUser
-        Set<Long> favoriteListingIds = currentUser != null
-            ? favoriteRepository.findFavoriteListingIdsByUserId(currentUser.getId())
-            : Set.of();
+        Double rowCount = listingRepository.estimateRowCount();
+        if (rowCount == null || rowCount < 0) {
+            return null;
+        }
 
-        return listingPage.map(listing -> {
-            ListingDto dto = listingMapper.toDto(listing);
+        if (request.getStatus() == null) {
+            return Math.round(rowCount);
+        }
 
-            dto.setIsFavorite(currentUser != null
-                ? favoriteListingIds.contains(listing.getId())
-                : null
-            );
+        Double frequency = listingRepository.estimateStatusFrequency(request.getStatus().name());
 
-            return dto;
-        });
+        return frequency != null ? Math.round(rowCount * frequency) : null;
     }
 
-    @Transactional
-    public int disableListingsOlderThanDays(int days) {
-        Instant threshold = LocalDate.now()
-            .minusDays(days)
-            .atStartOfDay(ZoneId.systemDefault())
-            .toInstant();
-
-        return listingRepository.updateStatusOlderThan(
-            threshold,
-            ListingStatus.APPROVED,
-            ListingStatus.INACTIVE,
-            Instant.now()
-        );
+    // reverses all orders of the sort, used for scrolling backward
+    private static Sort reverse(Sort sort) {
+        return Sort.by(sort.stream()
+            .map(order -> order.with(order.getDirection().isAscending() ? Sort.Direction.DESC : Sort.Direction.ASC))
+            .toList());
+    }
+
+    // add "favorite" flag for favorized listings of currentUser, only looking up the listings of the current page
+    private List<ListingDto> withFavoriteFlag(List<ListingDto> listings, @Nullable User currentUser) {
+        Set<Long> favoriteListingIds = currentUser != null && !listings.isEmpty()
+            ? favoriteRepository.findFavoriteListingIdsByUserIdAndListingIdIn(
+                currentUser.getId(),
+                listings.stream().map(ListingDto::getId).toList()
+            )
+            : Set.of();
+
+        listings.forEach(dto -> dto.setIsFavorite(currentUser != null
+            ? favoriteListingIds.contains(dto.getId())
+            : null
+        ));
+
+        return listings;
     }
 }
@@ -2,16 +2,15 @@ package dev.baristop.portfolio.listingservice.listing.service;
 
 import dev.baristop.portfolio.listingservice.exception.InvalidListingStateException;
 import dev.baristop.portfolio.listingservice.exception.ResourceNotFoundException;
+import dev.baristop.portfolio.listingservice.kafka.ListingLifecycleProducer;
 import dev.baristop.portfolio.listingservice.kafka.ListingStatusProducer;
 import dev.baristop.portfolio.listingservice.kafka.dto.ListingStatusChangedEvent;
 import dev.baristop.portfolio.listingservice.listing.dto.ListingDto;
 import dev.baristop.portfolio.listingservice.listing.entity.Listing;
 import dev.baristop.portfolio.listingservice.listing.entity.ListingStatus;
-import dev.baristop.portfolio.listingservice.listing.mapper.ListingMapper;
 import dev.baristop.portfolio.listingservice.listing.repository.ListingRepository;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CachePut;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,11 +20,11 @@ import org.springframework.transaction.annotation.Transactional;
 public class ListingStatusService {
 
     private final ListingRepository listingRepository;
-    private final ListingMapper listingMapper;
+    private final ListingCacheService listingCacheService;
     private final ListingStatusProducer listingStatusProducer;
+    private final ListingLifecycleProducer listingLifecycleProducer;
 
     @Transactional
-    @CachePut(value = "listings", key = "#listingId")
     public ListingDto updateListingStatus(Long listingId, ListingStatus status) {
         Listing listing = listingRepository.findById(listingId)
             .orElseThrow(() -> new ResourceNotFoundException("Listing not found with id: " + listingId));
@@ -35,9 +34,10 @@ public class ListingStatusService {
         }
 
         listing.setStatus(status);
-        listingRepository.save(listing);
+        // flushed, so that updatedAt is set before the listing is cached
+        listingRepository.saveAndFlush(listing);
 
-        // produce kafka event
+        // produce kafka event, published via the outbox after the commit
         ListingStatusChangedEvent event = new ListingStatusChangedEvent(
             listing.getStatus(),
             listing.getOwner().getEmail(),
@@ -46,7 +46,8 @@ public class ListingStatusService {
             listing.getDescription()
         );
         listingStatusProducer.sendListingStatusEvent(event);
+        listingLifecycleProducer.statusChanged(listing.getId(), listing.getStatus());
 
-        return listingMapper.toDto(listing);
+        return listingCacheService.update(listing).listing();
     }
 }
@@ -1,14 +1,22 @@
 package dev.baristop.portfolio.listingservice.listing.specification;
 
+import dev.baristop.portfolio.listingservice.config.SearchFunctionContributor;
+import dev.baristop.portfolio.listingservice.listing.dto.ListingCursor;
 import dev.baristop.portfolio.listingservice.listing.dto.ListingQueryRequestDto;
 import dev.baristop.portfolio.listingservice.listing.entity.Listing;
 import dev.baristop.portfolio.listingservice.listing.entity.Listing_;
+import dev.baristop.portfolio.listingservice.listing.entity.UserFavoriteListing;
+import dev.baristop.portfolio.listingservice.listing.entity.UserFavoriteListing_;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
@@ -27,10 +35,13 @@ public class ListingSpecification {
      *   <li><code>title</code>: filters listings by title (case-insensitive, partial match)</li>
      *   <li><code>description</code>: filters listings by description (case-insensitive, partial match)</li>
      *   <li><code>city</code>: filters listings by city (case-insensitive, partial match)</li>
+     *   <li><code>q</code>: full-text search over title, description and city</li>
+     *   <li><code>favoritedBy</code>: only listings the given user marked as favorite</li>
      * </ul>
      *
      * <p>Note: Uses case-insensitive matching for <code>name</code> and <code>email</code> fields
      * by converting to lowercase and using SQL LIKE operator with wildcards.
+     * These predicates are served by the pg_trgm indexes on <code>lower(col)</code>.
      *
      * @param requestDto the filter criteria encapsulated in a {@link ListingQueryRequestDto} object
      *
@@ -42,6 +53,13 @@ public class ListingSpecification {
         return (root, query, cb) -> {
             List<Predicate> predicates = new ArrayList<>();
 
+            // full-text search
+            if (hasText(requestDto.getQ())) {
+                predicates.add(
+                    cb.isTrue(searchFunction(cb, root, SearchFunctionContributor.MATCH, Boolean.class, requestDto.getQ()))
+                );
+            }
+
             // basic filters
             if (hasText(requestDto.getTitle())) {
                 predicates.add(
@@ -85,8 +103,21 @@ public class ListingSpecification {
                 );
             }
 
-            // avoid duplicates caused by joins
-            Objects.requireNonNull(query, "query must not be null").distinct(true);
+            // semi-join on user_favorite_listing, served by its unique (user_id, listing_id) index
+            if (requestDto.getFavoritedBy() != null) {
+                Subquery<Long> favorite = Objects.requireNonNull(query, "query must not be null").subquery(Long.class);
+                Root<UserFavoriteListing> favoriteRoot = favorite.from(UserFavoriteListing.class);
+                favorite.select(favoriteRoot.get(UserFavoriteListing_.id))
+                    .where(
+                        cb.equal(favoriteRoot.get(UserFavoriteListing_.user), requestDto.getFavoritedBy()),
+                        cb.equal(favoriteRoot.get(UserFavoriteListing_.listing), root)
+                    );
+
+                predicates.add(cb.exists(favorite));
+            }
+
+            // no joins are added (favorites use EXISTS), so no DISTINCT is needed.
+            // It would also turn the page count into a COUNT(DISTINCT).
 
             return predicates.isEmpty()
                 ? cb.conjunction()
@@ -94,6 +125,102 @@ public class ListingSpecification {
         };
     }
 
+    /**
+     * Restricts the result to listings that have a value for the given sort field.
+     * <p>
+     * Required for keyset pagination: a cursor is positioned by comparing sort values, which is not possible for NULL.
+     * Listings created via the API always have a title and price, so this does not hide any regular data.
+     *
+     * @param sortBy the (whitelisted) field the result is sorted by
+     *
+     * @return a {@link Specification} excluding listings with NULL in the sort field
+     */
+    public static Specification<Listing> hasSortValue(String sortBy) {
+        return (root, query, cb) -> cb.isNotNull(root.get(sortBy));
+    }
+
+    /**
+     * Restricts the result to listings positioned after (or, for a backward cursor, before) the cursor's boundary listing,
+     * i.e. <code>(sortBy, id) &gt; (value, id)</code> for ascending order.
+     * <p>
+     * When scrolling backward, the result must be sorted in reverse order and reversed again afterward.
+     *
+     * @param cursor    the decoded cursor
+     * @param ascending whether the requested sort direction is ascending
+     *
+     * @return a {@link Specification} implementing the keyset (seek) condition
+     */
+    public static Specification<Listing> seek(ListingCursor cursor, boolean ascending) {
+        return (root, query, cb) -> {
+            boolean greater = ascending != cursor.backward();
+
+            Predicate idPredicate = greater
+                ? cb.greaterThan(root.get(Listing_.id), cursor.id())
+                : cb.lessThan(root.get(Listing_.id), cursor.id());
+
+            return switch (cursor.sortBy()) {
+                case "id" -> idPredicate;
+                case "title" -> seekBy(cb, root.get(Listing_.title), (String) cursor.typedValue(), greater, idPredicate);
+                case "price" -> seekBy(cb, root.get(Listing_.price), (BigDecimal) cursor.typedValue(), greater, idPredicate);
+                default -> throw new IllegalArgumentException("Invalid cursor sort field: " + cursor.sortBy());
+            };
+        };
+    }
+
+    /**
+     * Orders listings by their full-text search relevance for the given query (best match first), using the id as tie-breaker.
+     * <p>
+     * The ordering is part of the specification because a relevance rank cannot be expressed as a {@link org.springframework.data.domain.Sort}.
+     * It must therefore be combined with an unsorted {@link org.springframework.data.domain.Pageable}.
+     *
+     * @param q the full-text search query
+     *
+     * @return a {@link Specification} that only applies ordering
+     */
+    public static Specification<Listing> orderByRelevance(String q) {
+        return (root, query, cb) -> {
+            Objects.requireNonNull(query, "query must not be null").orderBy(
+                cb.desc(searchFunction(cb, root, SearchFunctionContributor.RANK, Double.class, q)),
+                cb.asc(root.get(Listing_.id))
+            );
+
+            return null;
+        };
+    }
+
+    // helper: calls one of the full-text search functions with the listing document columns.
+    // The query is passed as bind parameter: cb.literal() would inline it into the SQL.
+    private static <T> Expression<T> searchFunction(
+        CriteriaBuilder cb,
+        Root<Listing> root,
+        String function,
+        Class<T> type,
+        String q
+    ) {
+        return cb.function(
+            function,
+            type,
+            root.get(Listing_.title),
+            root.get(Listing_.description),
+            root.get(Listing_.city),
+            ((HibernateCriteriaBuilder) cb).value(q)
+        );
+    }
+
+    // helper: (expr, id) compared to (value, cursor id), using the id as tie-breaker
+    private static <T extends Comparable<? super T>> Predicate seekBy(
+        CriteriaBuilder cb,
+        Expression<T> expr,
+        T value,
+        boolean greater,
+        Predicate idPredicate
+    ) {
+        return cb.or(
+            greater ? cb.greaterThan(expr, value) : cb.lessThan(expr, value),
+            cb.and(cb.equal(expr, value), idPredicate)
+        );
+    }
+
     // helper: null/blank-safe checker
     private static boolean hasText(String s) {
         return s != null && !s.isBlank();
@@ -0,0 +1,71 @@
+package dev.baristop.portfolio.listingservice.outbox.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * A Kafka message waiting to be published, written in the same transaction as the change it describes.
+ * Rows are deleted once the message has been acknowledged by the broker, or kept as dead letter if it cannot be
+ * published (see <code>OutboxRelay</code>).
+ */
+@Entity
+@Table(name = "outbox_events")
+@Getter
+@Setter
+@NoArgsConstructor
+public class OutboxEvent {
+
+    // IDENTITY, not a pooled sequence: every insert takes the next ID on all nodes, so the relay publishing in ID order
+    // can tell a gap left by a transaction that has not committed yet (IDs follow the insert order, not the commit order)
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String topic;
+
+    private String messageKey;
+
+    // fully qualified class name, so the relay can hand the original type to the JSON serializer
+    @Column(nullable = false)
+    private String payloadType;
+
+    @Column(nullable = false, columnDefinition = "text")
+    private String payload;
+
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt = Instant.now();
+
+    // failed publishing attempts
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(columnDefinition = "text")
+    private String lastError;
+
+    // set once the relay gave up on the message
+    private Instant deadLetteredAt;
+
+    public OutboxEvent(String topic, String messageKey, String payloadType, String payload) {
+        this.topic = topic;
+        this.messageKey = messageKey;
+        this.payloadType = payloadType;
+        this.payload = payload;
+    }
+
+    @Override
+    public String toString() {
+        return "OutboxEvent{" +
+            "id=" + id +
+            ", topic='" + topic + '\'' +
+            ", messageKey='" + messageKey + '\'' +
+            ", payloadType='" + payloadType + '\'' +
+            ", createdAt=" + createdAt +
+            ", attempts=" + attempts +
+            '}';
+    }
+}
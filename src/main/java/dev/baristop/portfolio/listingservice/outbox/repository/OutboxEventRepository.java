@@ -0,0 +1,30 @@
+package dev.baristop.portfolio.listingservice.outbox.repository;
+
+import dev.baristop.portfolio.listingservice.outbox.entity.OutboxEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Takes the relay lock until the end of the current transaction (PostgreSQL only), see {@link #findNextBatch}.
+     *
+     * @return false if another relay holds the lock
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(hashtext('listing-service:outbox-relay'))", nativeQuery = true)
+    boolean tryLockRelay();
+
+    /**
+     * Returns the oldest unpublished events, skipping dead letters.
+     * <p>
+     * Must only be called while holding the relay lock ({@link #tryLockRelay}): batches are then published strictly one
+     * after another across all nodes, so events of the same key are never published out of order by two relays.
+     */
+    @Query("SELECT e FROM OutboxEvent e WHERE e.deadLetteredAt IS NULL ORDER BY e.id")
+    List<OutboxEvent> findNextBatch(Limit limit);
+}
@@ -0,0 +1,275 @@
+package dev.baristop.portfolio.listingservice.outbox.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.baristop.portfolio.listingservice.outbox.entity.OutboxEvent;
+import dev.baristop.portfolio.listingservice.outbox.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.errors.RetriableException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes the messages of the {@link OutboxService} to Kafka.
+ * <p>
+ * Polls every <code>app.outbox.relay.interval</code> and drains the outbox in batches of
+ * <code>app.outbox.relay.batch-size</code>, which also bounds the messages in flight: each batch is sent without
+ * waiting per message, and the acknowledged messages are deleted. A failed message is retried on the next poll, together
+ * with the later messages of its key in the batch, so that they follow it again. Messages may therefore be published
+ * more than once, never lost.
+ * <p>
+ * A message that still fails after <code>app.outbox.relay.max-attempts</code> polls (e.g. an unreadable payload or a
+ * record too large for the broker) is kept as dead letter: the relay skips it from then on instead of letting it block
+ * all later messages. Retriable errors (e.g. the broker being unavailable) never dead-letter a message.
+ * <p>
+ * Only one relay in the cluster publishes at a time: every batch transaction first takes a PostgreSQL advisory lock,
+ * and relays of other nodes skip the poll while it is held, so messages are published in ID order. IDs are assigned
+ * on insert, not on commit, so a gap in the IDs may be a message whose transaction has not committed yet: the relay
+ * stops before a gap until the message after it is older than <code>app.outbox.relay.gap-timeout</code>, after which
+ * the gap is taken for a rolled-back transaction. Messages of a key (e.g. a listing) thus keep their ID order, unless
+ * a transaction commits later than the gap timeout after writing its message. Messages written while holding the row
+ * lock of their listing (see <code>ListingService</code>, <code>ListingStatusService</code>) are in commit order anyway.
+ * <p>
+ * Producer metrics (e.g. <code>kafka.producer.record.send.rate</code>, <code>kafka.producer.batch.size.avg</code>,
+ * <code>kafka.producer.record.queue.time.avg</code>) are bound to Micrometer by Spring Boot's Kafka metrics
+ * auto-configuration.
+ * <p>
+ * Metrics:
+ * <ul>
+ *   <li><code>outbox.events.published</code>: published messages, by topic (throughput)</li>
+ *   <li><code>outbox.events.delay</code>: time from enqueueing to acknowledgement</li>
+ *   <li><code>outbox.lag</code>: age of the oldest unpublished message at the last poll, in seconds</li>
+ *   <li><code>outbox.relay.failures</code>: batches with failed messages</li>
+ *   <li><code>outbox.events.dead_lettered</code>: messages given up on, by topic</li>
+ * </ul>
+ */
+@Service
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+    private final Duration sendTimeout;
+    private final int maxAttempts;
+    private final Duration gapTimeout;
+
+    private final Timer delay;
+    private final Counter failures;
+    private final AtomicLong lagSeconds = new AtomicLong();
+    // the highest ID handled by this relay, the message after it is expected next
+    private final AtomicLong lastSeenId = new AtomicLong();
+
+    public OutboxRelay(
+        OutboxEventRepository outboxEventRepository,
+        KafkaTemplate<String, Object> kafkaTemplate,
+        ObjectMapper objectMapper,
+        PlatformTransactionManager transactionManager,
+        MeterRegistry meterRegistry,
+        @Value("${app.outbox.relay.batch-size:100}") int batchSize,
+        @Value("${app.outbox.relay.send-timeout:PT10S}") Duration sendTimeout,
+        @Value("${app.outbox.relay.max-attempts:10}") int maxAttempts,
+        @Value("${app.outbox.relay.gap-timeout:PT5S}") Duration gapTimeout
+    ) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.sendTimeout = sendTimeout;
+        this.maxAttempts = maxAttempts;
+        this.gapTimeout = gapTimeout;
+
+        this.delay = Timer.builder("outbox.events.delay").register(meterRegistry);
+        this.failures = Counter.builder("outbox.relay.failures").register(meterRegistry);
+        Gauge.builder("outbox.lag", lagSeconds, AtomicLong::get).baseUnit("seconds").register(meterRegistry);
+    }
+
+    /**
+     * Publishes all pending messages. Failures are logged, the affected messages are retried on the next call.
+     *
+     * @return the number of published messages
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.relay.interval:PT1S}")
+    public int publishPending() {
+        int total = 0;
+        try {
+            int published;
+            do {
+                published = transactionTemplate.execute(status -> publishBatch());
+                total += published;
+            } while (published == batchSize);
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.warn("Publishing outbox events failed, retrying on next poll", e);
+        }
+
+        return total;
+    }
+
+    private int publishBatch() {
+        if (!outboxEventRepository.tryLockRelay()) {
+            log.debug("Outbox relay lock is held by another node, skipping poll");
+            return 0;
+        }
+
+        List<OutboxEvent> events = outboxEventRepository.findNextBatch(Limit.of(batchSize));
+        lagSeconds.set(events.isEmpty() ? 0 : Duration.between(events.getFirst().getCreatedAt(), Instant.now()).toSeconds());
+        events = untilGap(events);
+        if (events.isEmpty()) {
+            return 0;
+        }
+        lastSeenId.accumulateAndGet(events.getLast().getId(), Math::max);
+
+        // all messages are in flight at once, the producer batches them;
+        // flushed, since waiting for linger.ms would only delay the acknowledgements awaited below
+        List<CompletableFuture<?>> sends = events.stream().<CompletableFuture<?>>map(this::send).toList();
+        kafkaTemplate.flush();
+
+        List<OutboxEvent> published = new ArrayList<>();
+        // keys with a message to retry: their later messages are retried as well, so they are published after it again
+        Set<String> retriedKeys = new HashSet<>();
+        long deadline = System.nanoTime() + sendTimeout.toNanos();
+        for (int i = 0; i < events.size(); i++) {
+            OutboxEvent event = events.get(i);
+            Throwable error = await(sends.get(i), deadline);
+            if (error == null) {
+                if (!retriedKeys.contains(event.getMessageKey())) {
+                    published.add(event);
+                }
+            } else if (!recordFailure(event, error) && event.getMessageKey() != null) {
+                retriedKeys.add(event.getMessageKey());
+            }
+        }
+
+        if (!published.isEmpty()) {
+            outboxEventRepository.deleteAllInBatch(published);
+        }
+
+        Instant now = Instant.now();
+        for (OutboxEvent event : published) {
+            delay.record(Duration.between(event.getCreatedAt(), now));
+            Counter.builder("outbox.events.published").tag("topic", event.getTopic()).register(meterRegistry).increment();
+        }
+        if (published.size() < events.size()) {
+            failures.increment();
+            log.warn("Published {} of {} outbox events, retrying the others on next poll", published.size(), events.size());
+        } else {
+            log.debug("Published {} outbox events", events.size());
+        }
+
+        return published.size();
+    }
+
+    /**
+     * Returns the events up to the first gap in their IDs that may still be filled by a running transaction. Events
+     * retried or below the gap are kept; the published batch is then shorter than the batch size, so the relay stops
+     * until the next poll.
+     * <p>
+     * After a restart, or when another node relayed meanwhile, the first event counts as following a gap and waits for
+     * the gap timeout at most. The creation times are taken from the clocks of the nodes, which must be in sync well
+     * within the gap timeout.
+     */
+    private List<OutboxEvent> untilGap(List<OutboxEvent> events) {
+        Instant gapDeadline = Instant.now().minus(gapTimeout);
+        long expectedId = lastSeenId.get() + 1;
+        for (int i = 0; i < events.size(); i++) {
+            OutboxEvent event = events.get(i);
+            if (event.getId() > expectedId && event.getCreatedAt().isAfter(gapDeadline)) {
+                log.debug("Waiting for outbox events {} to {}", expectedId, event.getId() - 1);
+                return events.subList(0, i);
+            }
+            expectedId = Math.max(expectedId, event.getId() + 1);
+        }
+
+        return events;
+    }
+
+    private CompletableFuture<?> send(OutboxEvent event) {
+        try {
+            return kafkaTemplate.send(event.getTopic(), event.getMessageKey(), payload(event));
+        } catch (RuntimeException e) {
+            // e.g. an unreadable payload, or a serialization error raised before the message reaches the producer
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Counts a failed attempt and dead-letters the message once it has failed too often for a non-retriable reason.
+     *
+     * @return true if the message has been dead-lettered
+     */
+    private boolean recordFailure(OutboxEvent event, Throwable error) {
+        event.setAttempts(event.getAttempts() + 1);
+        event.setLastError(error.toString());
+        if (isRetriable(error) || event.getAttempts() < maxAttempts) {
+            log.debug("Publishing outbox event {} failed", event, error);
+            return false;
+        }
+
+        event.setDeadLetteredAt(Instant.now());
+        Counter.builder("outbox.events.dead_lettered").tag("topic", event.getTopic()).register(meterRegistry).increment();
+        log.error("Giving up on outbox event {}, kept as dead letter", event, error);
+
+        return true;
+    }
+
+    private Object payload(OutboxEvent event) {
+        try {
+            return objectMapper.readValue(event.getPayload(), Class.forName(event.getPayloadType()));
+        } catch (IOException | ClassNotFoundException e) {
+            throw new IllegalStateException("Could not read payload of " + event, e);
+        }
+    }
+
+    // the error of the send, or null once it has been acknowledged
+    private static Throwable await(CompletableFuture<?> send, long deadline) {
+        try {
+            send.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while publishing outbox events", e);
+        } catch (ExecutionException e) {
+            return e.getCause();
+        } catch (TimeoutException e) {
+            return e;
+        }
+    }
+
+    // the broker being unavailable or slow is no reason to give up on a message
+    private static boolean isRetriable(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RetriableException || cause instanceof TimeoutException) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
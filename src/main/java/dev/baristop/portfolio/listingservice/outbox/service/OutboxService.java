@@ -0,0 +1,48 @@
+package dev.baristop.portfolio.listingservice.outbox.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.baristop.portfolio.listingservice.outbox.entity.OutboxEvent;
+import dev.baristop.portfolio.listingservice.outbox.repository.OutboxEventRepository;
+import jakarta.annotation.Nullable;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Transactional outbox: messages are stored in the database as part of the caller's transaction and published to
+ * Kafka afterward by the {@link OutboxRelay}.
+ * <p>
+ * A message is therefore published if and only if the transaction commits (at least once), and callers never wait
+ * for the broker.
+ */
+@Service
+@AllArgsConstructor
+@Slf4j
+public class OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Stores a message for publication. Must be called within the transaction of the change the message describes.
+     *
+     * @param topic   the Kafka topic
+     * @param key     the message key, messages with the same key keep their order
+     * @param payload the message value, serialized as JSON
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(String topic, @Nullable String key, Object payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Could not serialize outbox payload " + payload.getClass().getName(), e);
+        }
+
+        OutboxEvent event = outboxEventRepository.save(new OutboxEvent(topic, key, payload.getClass().getName(), json));
+        log.debug("Enqueued {}", event);
+    }
+}
@@ -1,7 +1,10 @@
 package dev.baristop.portfolio.listingservice.response;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import dev.baristop.portfolio.listingservice.dto.CursorPage;
+import dev.baristop.portfolio.listingservice.dto.SlicePage;
 import lombok.Getter;
 import org.springframework.data.domain.Page;
 
@@ -31,10 +34,53 @@ public class PaginatedResponse<T> {
             page.getSize(),
             page.getTotalPages(),
             page.getTotalElements(),
-            page.isLast()
+            page.isLast(),
+            null,
+            null,
+            null
         );
     }
 
-    public record Pagination(int page, int size, int totalPages, long totalElements, boolean isLast) {
+    // Convenience constructor from CursorPage (keyset pagination has no page numbers or totals)
+    public PaginatedResponse(CursorPage<T> page) {
+        this.data = page.content();
+        this.pagination = new Pagination(
+            null,
+            page.size(),
+            null,
+            null,
+            page.nextCursor() == null,
+            page.nextCursor(),
+            page.prevCursor(),
+            null
+        );
+    }
+
+    // Convenience constructor from SlicePage (no count query, so only an optional estimated total)
+    public PaginatedResponse(SlicePage<T> page) {
+        this.data = page.content();
+        this.pagination = new Pagination(
+            page.page(),
+            page.size(),
+            null,
+            null,
+            !page.hasNext(),
+            null,
+            null,
+            page.estimatedTotalElements()
+        );
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Pagination(
+        Integer page,
+        int size,
+        Integer totalPages,
+        Long totalElements,
+        boolean isLast,
+        String nextCursor,
+        String prevCursor,
+        Long estimatedTotalElements
+    ) {
     }
 }
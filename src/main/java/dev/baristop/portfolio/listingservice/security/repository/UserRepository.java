@@ -2,9 +2,37 @@ package dev.baristop.portfolio.listingservice.security.repository;
 
 import dev.baristop.portfolio.listingservice.security.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByKeycloakId(String keycloakId);
+
+    Optional<UserIdentity> findIdentityByKeycloakId(String keycloakId);
+
+    /**
+     * Creates the user unless a user with the given Keycloak ID exists (PostgreSQL only).
+     * A single statement, so concurrent first requests of a user cannot violate the unique constraint on keycloak_id;
+     * an existing row is neither locked nor rewritten. The ID is a whole block of the pooled sequence (its upper bound),
+     * so it never collides with IDs of Hibernate.
+     *
+     * @return the ID and email of the new user, or empty if the user exists
+     */
+    @Transactional
+    @Query(value = """
+            INSERT INTO users (id, keycloak_id, email)
+            VALUES (nextval('users_seq'), :keycloakId, :email)
+            ON CONFLICT (keycloak_id) DO NOTHING
+            RETURNING id, email
+        """, nativeQuery = true)
+    Optional<UserIdentity> insertIfAbsent(@Param("keycloakId") String keycloakId, @Param("email") String email);
+
+    interface UserIdentity {
+        Long getId();
+
+        String getEmail();
+    }
 }
@@ -1,26 +1,61 @@
 package dev.baristop.portfolio.listingservice.security.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import dev.baristop.portfolio.listingservice.security.entity.User;
 import dev.baristop.portfolio.listingservice.security.repository.UserRepository;
-import lombok.AllArgsConstructor;
+import dev.baristop.portfolio.listingservice.security.repository.UserRepository.UserIdentity;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+
+/**
+ * Resolves the local user of an authenticated Keycloak user.
+ * <p>
+ * The Keycloak ID never changes for a user, so the mapping to the local ID and email is kept in a bounded in-memory cache
+ * (<code>app.security.user-cache.*</code>). Warm requests resolve their user without touching the database.
+ */
 @Service
-@AllArgsConstructor
 public class UserService {
 
     private final UserRepository userRepository;
+    private final Cache<String, UserIdentity> identities;
+
+    public UserService(
+        UserRepository userRepository,
+        @Value("${app.security.user-cache.maximum-size:10000}") long maximumSize,
+        @Value("${app.security.user-cache.expire-after-write:PT30M}") Duration expireAfterWrite
+    ) {
+        this.userRepository = userRepository;
+        this.identities = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(expireAfterWrite)
+            .build();
+    }
 
-    @Transactional
+    /**
+     * Returns the user with the given Keycloak ID, creating it on first access.
+     * <p>
+     * The returned user is detached and only carries ID, Keycloak ID and email, which is sufficient to reference it
+     * (e.g. as listing owner or in queries).
+     */
     public User getOrCreateUserByKeycloakId(String keycloakId, String email) {
-        return userRepository.findByKeycloakId(keycloakId)
-            .orElseGet(() -> {
-                User user = new User();
-                user.setKeycloakId(keycloakId);
-                user.setEmail(email);
-
-                return userRepository.save(user);
-            });
+        UserIdentity identity = identities.get(keycloakId, id -> findOrCreate(id, email));
+
+        User user = new User(keycloakId);
+        user.setId(identity.getId());
+        user.setEmail(identity.getEmail());
+
+        return user;
+    }
+
+    // a read-only lookup first: after each expiry, every node misses for existing users, which are the common case
+    private UserIdentity findOrCreate(String keycloakId, String email) {
+        return userRepository.findIdentityByKeycloakId(keycloakId)
+            .or(() -> userRepository.insertIfAbsent(keycloakId, email))
+            // created by a concurrent first request meanwhile
+            .or(() -> userRepository.findIdentityByKeycloakId(keycloakId))
+            .orElseThrow(() -> new IllegalStateException("Could not create user " + keycloakId));
     }
 }
@@ -0,0 +1,26 @@
+-- Full-text search and trigram indexes for listing searches.
+--
+-- 1. Full-text search (query parameter "q"):
+--    GIN expression index on the document built from title, description and city.
+--    The expression must match the one rendered by the "listing_fts_match" HQL function
+--    (see SearchFunctionContributor), otherwise the index is not used.
+--
+-- 2. Substring filters (title, description, city):
+--    The filters are rendered as lower(col) LIKE '%value%'. A B-tree index cannot serve a leading wildcard,
+--    a pg_trgm GIN index on lower(col) can.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX idx_listings_search
+    ON listings USING gin (
+        to_tsvector('simple', coalesce(title, '') || ' ' || coalesce(description, '') || ' ' || coalesce(city, ''))
+    );
+
+CREATE INDEX idx_listings_title_trgm
+    ON listings USING gin (lower(title) gin_trgm_ops);
+
+CREATE INDEX idx_listings_description_trgm
+    ON listings USING gin (lower(description) gin_trgm_ops);
+
+CREATE INDEX idx_listings_city_trgm
+    ON listings USING gin (lower(city) gin_trgm_ops);
@@ -0,0 +1,16 @@
+-- Transactional outbox for Kafka messages (see OutboxService).
+--
+-- Rows are inserted in the transaction of the change they describe and deleted by the relay once published.
+-- A single relay in the cluster, holding an advisory lock, reads the oldest rows by primary key, so no further index is
+-- needed.
+
+CREATE TABLE outbox_events
+(
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    topic        VARCHAR(255)                            NOT NULL,
+    message_key  VARCHAR(255),
+    payload_type VARCHAR(255)                            NOT NULL,
+    payload      TEXT                                    NOT NULL,
+    created_at   TIMESTAMP WITHOUT TIME ZONE             NOT NULL,
+    CONSTRAINT pk_outbox_events PRIMARY KEY (id)
+);
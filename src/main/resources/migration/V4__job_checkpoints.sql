@@ -0,0 +1,12 @@
+-- Progress of chunked command line jobs (see ListingExpiryService).
+--
+-- A job stores the last processed ID with every chunk, in the chunk's transaction, and deletes its row once it is done,
+-- so a killed run resumes after the last committed chunk.
+
+CREATE TABLE job_checkpoints
+(
+    job_name   VARCHAR(255)                NOT NULL,
+    last_id    BIGINT                      NOT NULL,
+    updated_at TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    CONSTRAINT pk_job_checkpoints PRIMARY KEY (job_name)
+);
@@ -0,0 +1,21 @@
+-- Sequence-generated IDs for listings, favorites and users (see the @SequenceGenerator of the entities).
+--
+-- With IDENTITY columns, Hibernate has to execute every INSERT on its own to read the generated ID, so inserts cannot
+-- be batched (hibernate.jdbc.batch_size). With a sequence, IDs are known before the INSERT.
+--
+-- Hibernate's pooled optimizer reserves 50 IDs per nextval(): a returned value v stands for the IDs v - 49 .. v.
+-- The sequences must therefore increment by the entities' allocationSize, and start 50 above the current maximum.
+-- Outbox events keep their IDENTITY column: every insert takes the next ID, so the relay, which publishes in ID order,
+-- can tell a gap left by a transaction that has not committed yet. IDs follow the insert order, not the commit order.
+
+CREATE SEQUENCE listings_seq INCREMENT BY 50;
+SELECT setval('listings_seq', coalesce(max(id), 0) + 50, false) FROM listings;
+ALTER TABLE listings ALTER COLUMN id DROP IDENTITY;
+
+CREATE SEQUENCE user_favorite_listing_seq INCREMENT BY 50;
+SELECT setval('user_favorite_listing_seq', coalesce(max(id), 0) + 50, false) FROM user_favorite_listing;
+ALTER TABLE user_favorite_listing ALTER COLUMN id DROP IDENTITY;
+
+CREATE SEQUENCE users_seq INCREMENT BY 50;
+SELECT setval('users_seq', coalesce(max(id), 0) + 50, false) FROM users;
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY;
@@ -0,0 +1,16 @@
+-- Failed publishing attempts of outbox events (see OutboxRelay).
+--
+-- An event that keeps failing for a reason retrying cannot fix (e.g. an unreadable payload or a record too large for
+-- the broker) is dead-lettered instead of blocking all later events. Dead-lettered rows stay for inspection; the relay
+-- only reads the others, served by the partial index.
+
+ALTER TABLE outbox_events
+    ADD COLUMN attempts INT DEFAULT 0 NOT NULL;
+
+ALTER TABLE outbox_events
+    ADD COLUMN last_error TEXT;
+
+ALTER TABLE outbox_events
+    ADD COLUMN dead_lettered_at TIMESTAMP WITHOUT TIME ZONE;
+
+CREATE INDEX idx_outbox_events_pending ON outbox_events (id) WHERE dead_lettered_at IS NULL;
@@ -0,0 +1,7 @@
+-- The parameters a checkpoint was written with (see ListingExpiryService).
+--
+-- A run resumes after a checkpoint only if it selects by the same threshold; a run with another threshold (e.g. on the
+-- next day, or with another --older-than) starts from the first ID. Checkpoints without threshold are ignored.
+
+ALTER TABLE job_checkpoints
+    ADD COLUMN threshold TIMESTAMP WITHOUT TIME ZONE;
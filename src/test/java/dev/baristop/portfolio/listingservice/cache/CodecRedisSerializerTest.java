@@ -0,0 +1,151 @@
+package dev.baristop.portfolio.listingservice.cache;
+
+import dev.baristop.portfolio.listingservice.config.CacheConfig;
+import dev.baristop.portfolio.listingservice.listing.dto.CachedListing;
+import dev.baristop.portfolio.listingservice.listing.dto.ListingDto;
+import dev.baristop.portfolio.listingservice.listing.entity.ListingStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.support.NullValue;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CodecRedisSerializerTest {
+
+    private final RedisSerializer<Object> json = CacheConfig.jsonSerializer();
+    private final CodecRedisSerializer serializer = new CodecRedisSerializer(
+        List.of(new ListingDtoCodec(), new CachedListingCodec()),
+        json
+    );
+
+    @Test
+    void shouldRoundTripListing_inBinaryFormat() {
+        // Arrange
+        ListingDto listing = listing();
+
+        // Act
+        byte[] bytes = serializer.serialize(listing);
+        ListingDto result = (ListingDto) serializer.deserialize(bytes);
+
+        // Assert
+        assertThat(bytes[0]).isEqualTo(CodecRedisSerializer.MAGIC);
+        assertThat(bytes.length).isLessThan(json.serialize(listing).length / 2);
+        assertThat(result).usingRecursiveComparison().isEqualTo(listing);
+    }
+
+    @Test
+    void shouldRoundTripCachedListing() {
+        // Arrange
+        CachedListing cachedListing = new CachedListing(
+            listing(), "0b6c3d6e-6f1a-4c55-9c0a-1b2f3e4d5c6b", Instant.parse("2025-01-02T03:04:05.123456Z")
+        );
+
+        // Act
+        byte[] bytes = serializer.serialize(cachedListing);
+        CachedListing result = (CachedListing) serializer.deserialize(bytes);
+
+        // Assert
+        assertThat(bytes[1]).isEqualTo(CachedListingCodec.ID);
+        assertThat(result).usingRecursiveComparison().isEqualTo(cachedListing);
+    }
+
+    @Test
+    void shouldRoundTripListing_withNullFields() {
+        // Arrange
+        ListingDto listing = new ListingDto();
+        listing.setId(7L);
+        listing.setPrice(new BigDecimal("-1.5E+3"));
+
+        // Act
+        ListingDto result = (ListingDto) serializer.deserialize(serializer.serialize(listing));
+
+        // Assert
+        assertThat(result).usingRecursiveComparison().isEqualTo(listing);
+    }
+
+    @Test
+    void shouldRoundTripCachedValueEnvelope() {
+        // Arrange
+        CachedValue entry = new CachedValue(listing(), 1_700_000_000_000L, 12);
+
+        // Act
+        CachedValue result = (CachedValue) serializer.deserialize(serializer.serialize(entry));
+
+        // Assert
+        assertThat(result).usingRecursiveComparison().isEqualTo(entry);
+    }
+
+    @Test
+    void shouldRoundTripCachedNullValue() {
+        // Arrange
+        CachedValue entry = new CachedValue(NullValue.INSTANCE, 1_700_000_000_000L, 3);
+
+        // Act
+        byte[] bytes = serializer.serialize(entry);
+        CachedValue result = (CachedValue) serializer.deserialize(bytes);
+
+        // Assert
+        assertThat(bytes).hasSizeLessThan(16);
+        assertThat(result).isEqualTo(entry);
+    }
+
+    @Test
+    void shouldReadLegacyJsonEntries() {
+        // Arrange
+        ListingDto listing = listing();
+
+        // Act
+        Object result = serializer.deserialize(json.serialize(listing));
+
+        // Assert
+        assertThat(result).usingRecursiveComparison().isEqualTo(listing);
+    }
+
+    @Test
+    void shouldTreatUnknownVersionAsMiss() {
+        // Arrange: entry written by a node with a newer layout
+        byte[] bytes = serializer.serialize(listing());
+        bytes[2] = ListingDtoCodec.VERSION + 1;
+
+        // Act & Assert
+        assertThat(serializer.deserialize(bytes)).isNull();
+    }
+
+    @Test
+    void shouldTreatCorruptEntryAsMiss() {
+        // Arrange
+        byte[] bytes = serializer.serialize(listing());
+        byte[] truncated = Arrays.copyOf(bytes, bytes.length / 2);
+
+        // Act & Assert
+        assertThat(serializer.deserialize(truncated)).isNull();
+    }
+
+    @Test
+    void shouldUseJson_forValuesWithoutCodec() {
+        // Act
+        byte[] bytes = serializer.serialize("plain value");
+
+        // Assert
+        assertThat(bytes[0]).isNotEqualTo(CodecRedisSerializer.MAGIC);
+        assertThat(serializer.deserialize(bytes)).isEqualTo("plain value");
+    }
+
+    static ListingDto listing() {
+        return new ListingDto(
+            42L,
+            "Mountain bike",
+            "Barely used mountain bike, 21 gears, includes lights and a lock.",
+            new BigDecimal("349.99"),
+            "Munich",
+            ListingStatus.APPROVED,
+            Instant.parse("2025-01-15T10:15:30.123456Z"),
+            null
+        );
+    }
+}
@@ -0,0 +1,75 @@
+package dev.baristop.portfolio.listingservice.cache;
+
+import dev.baristop.portfolio.listingservice.config.CacheConfig;
+import dev.baristop.portfolio.listingservice.listing.dto.ListingDto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH comparison of the JSON cache serializer with the binary {@link ListingDtoCodec}: encoded size, encode and decode time.
+ * <p>
+ * Disabled by default, run with: <code>mvn test -Dtest=ListingCacheCodecBenchmarkTest -Dbenchmark=true</code>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListingCacheCodecBenchmarkTest {
+
+    private RedisSerializer<Object> json;
+    private RedisSerializer<Object> binary;
+    private ListingDto listing;
+    private byte[] jsonBytes;
+    private byte[] binaryBytes;
+
+    @Setup
+    public void setUp() {
+        json = CacheConfig.jsonSerializer();
+        binary = new CodecRedisSerializer(List.of(new ListingDtoCodec()), json);
+        listing = CodecRedisSerializerTest.listing();
+        jsonBytes = json.serialize(listing);
+        binaryBytes = binary.serialize(listing);
+    }
+
+    @Benchmark
+    public byte[] encodeJson() {
+        return json.serialize(listing);
+    }
+
+    @Benchmark
+    public byte[] encodeBinary() {
+        return binary.serialize(listing);
+    }
+
+    @Benchmark
+    public Object decodeJson() {
+        return json.deserialize(jsonBytes);
+    }
+
+    @Benchmark
+    public Object decodeBinary() {
+        return binary.deserialize(binaryBytes);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void compareCodecs() throws RunnerException {
+        setUp();
+        System.out.printf(
+            "%nEncoded listing size%n  JSON:   %4d bytes%n  binary: %4d bytes%n",
+            jsonBytes.length, binaryBytes.length
+        );
+
+        new Runner(new OptionsBuilder().include(getClass().getName()).build()).run();
+    }
+}
@@ -0,0 +1,74 @@
+package dev.baristop.portfolio.listingservice.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import dev.baristop.portfolio.listingservice.listing.dto.ListingDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH comparison of writing a cached listing as response body: serialized per request (Spring MVC's default)
+ * vs. pre-serialized bytes from {@link SerializedResponseCache}. The GC profiler reports the allocations per request
+ * (<code>gc.alloc.rate.norm</code>).
+ * <p>
+ * Disabled by default, run with: <code>mvn test -Dtest=SerializedResponseBenchmarkTest -Dbenchmark=true</code>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializedResponseBenchmarkTest {
+
+    private ObjectMapper objectMapper;
+    private SerializedResponseCache cache;
+    private ListingDto listing;
+
+    // stands in for the response output stream, reset instead of reallocated
+    private ByteArrayOutputStream response;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        cache = new SerializedResponseCache(objectMapper, new SimpleMeterRegistry(), DataSize.ofMegabytes(1));
+        listing = CodecRedisSerializerTest.listing();
+        response = new ByteArrayOutputStream(1024);
+    }
+
+    @Benchmark
+    public int serializePerRequest() throws IOException {
+        response.reset();
+        objectMapper.writeValue(response, listing);
+        return response.size();
+    }
+
+    @Benchmark
+    public int writePreSerialized() throws IOException {
+        response.reset();
+        response.write(cache.get("1-100", () -> listing));
+        return response.size();
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void compareResponseWriting() throws RunnerException {
+        new Runner(
+            new OptionsBuilder()
+                .include(getClass().getName())
+                .addProfiler(GCProfiler.class)
+                .build()
+        ).run();
+    }
+}
@@ -0,0 +1,54 @@
+package dev.baristop.portfolio.listingservice.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import dev.baristop.portfolio.listingservice.listing.dto.ListingDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SerializedResponseCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Test
+    void shouldSerializeOncePerKey() throws Exception {
+        // Arrange
+        SerializedResponseCache cache = new SerializedResponseCache(objectMapper, new SimpleMeterRegistry(), DataSize.ofMegabytes(1));
+        ListingDto listing = CodecRedisSerializerTest.listing();
+        AtomicInteger serializations = new AtomicInteger();
+        Supplier<ListingDto> value = () -> {
+            serializations.incrementAndGet();
+            return listing;
+        };
+
+        // Act
+        byte[] first = cache.get("1-100", value);
+        byte[] second = cache.get("1-100", value);
+        cache.get("1-200", value);
+
+        // Assert
+        assertThat(first).isSameAs(second).isEqualTo(objectMapper.writeValueAsBytes(listing));
+        assertThat(serializations).hasValue(2);
+    }
+
+    @Test
+    void shouldSerializeEveryTime_whenDisabled() {
+        // Arrange
+        SerializedResponseCache cache = new SerializedResponseCache(objectMapper, new SimpleMeterRegistry(), null);
+        AtomicInteger serializations = new AtomicInteger();
+
+        // Act
+        cache.get("1-100", serializations::incrementAndGet);
+        cache.get("1-100", serializations::incrementAndGet);
+
+        // Assert
+        assertThat(cache.isEnabled()).isFalse();
+        assertThat(serializations).hasValue(2);
+    }
+}
@@ -0,0 +1,316 @@
+package dev.baristop.portfolio.listingservice.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.support.NullValue;
+import org.springframework.data.redis.connection.DefaultMessage;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class TwoLevelCacheManagerTest {
+
+    private static final int PARALLEL_REQUESTS = 32;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private ConcurrentMapCacheManager l2CacheManager;
+    private CacheInvalidationPublisher publisher;
+    private SimpleMeterRegistry meterRegistry;
+    private TwoLevelCacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        l2CacheManager = new ConcurrentMapCacheManager();
+        publisher = mock(CacheInvalidationPublisher.class);
+        meterRegistry = new SimpleMeterRegistry();
+        cacheManager = new TwoLevelCacheManager(
+            l2CacheManager,
+            L2BatchOperations.PER_KEY,
+            publisher,
+            meterRegistry,
+            objectMapper,
+            "node-1",
+            new TwoLevelCacheSettings(100, Duration.ofMinutes(1), Duration.ofMinutes(10), Duration.ofSeconds(30), 1.0)
+        );
+    }
+
+    @Test
+    void shouldServeRepeatedReadsFromL1() {
+        // Arrange
+        l2CacheManager.getCache("listings").put(1L, "listing 1");
+        Cache cache = cacheManager.getCache("listings");
+
+        // Act
+        cache.get(1L);
+        cache.get(1L);
+        cache.get(2L);
+
+        // Assert
+        assertThat(cache.get(1L).get()).isEqualTo("listing 1");
+        assertThat(count("l1", "hit")).isEqualTo(2);
+        assertThat(count("l1", "miss")).isEqualTo(2);
+        assertThat(count("l2", "hit")).isEqualTo(1);
+        assertThat(count("l2", "miss")).isEqualTo(1);
+    }
+
+    @Test
+    void shouldWriteBothTiersAndPublish_whenPutOrEvict() {
+        // Arrange
+        Cache cache = cacheManager.getCache("listings");
+
+        // Act
+        cache.put(1L, "listing 1");
+
+        // Assert
+        assertThat(l2CacheManager.getCache("listings").get(1L).get())
+            .isInstanceOfSatisfying(CachedValue.class, entry -> assertThat(entry.value()).isEqualTo("listing 1"));
+        verify(publisher).publish("listings", "1");
+
+        // Act
+        cache.evict(1L);
+
+        // Assert
+        assertThat(cache.get(1L)).isNull();
+        assertThat(l2CacheManager.getCache("listings").get(1L)).isNull();
+        verify(publisher, times(2)).publish("listings", "1");
+    }
+
+    @Test
+    void shouldDropL1Entry_whenOtherNodeChangedIt() throws Exception {
+        // Arrange: cached locally, then changed in L2 by another node
+        Cache cache = cacheManager.getCache("listings");
+        cache.put(1L, "listing 1");
+        l2CacheManager.getCache("listings").put(1L, "listing 1 updated");
+
+        // Act
+        cacheManager.onMessage(message(new CacheInvalidationMessage("node-2", "listings", "1")), null);
+
+        // Assert
+        assertThat(cache.get(1L).get()).isEqualTo("listing 1 updated");
+    }
+
+    @Test
+    void shouldIgnoreOwnInvalidationMessages() throws Exception {
+        // Arrange
+        Cache cache = cacheManager.getCache("listings");
+        cache.put(1L, "listing 1");
+        l2CacheManager.getCache("listings").put(1L, "changed in L2 only");
+
+        // Act
+        cacheManager.onMessage(message(new CacheInvalidationMessage("node-1", "listings", "1")), null);
+
+        // Assert
+        assertThat(cache.get(1L).get()).isEqualTo("listing 1");
+    }
+
+    @Test
+    void shouldLoadOnce_whenManyRequestsMissTogether() throws Exception {
+        // Arrange: the loader is slow, so all requests miss while it is running
+        Cache cache = cacheManager.getCache("listings");
+        AtomicInteger loads = new AtomicInteger();
+        Callable<String> loader = () -> {
+            loads.incrementAndGet();
+            Thread.sleep(100);
+            return "listing 1";
+        };
+
+        // Act
+        List<String> results = runInParallel(() -> cache.get(1L, loader));
+
+        // Assert
+        assertThat(results).hasSize(PARALLEL_REQUESTS).containsOnly("listing 1");
+        assertThat(loads).hasValue(1);
+        assertThat(meterRegistry.get("cache.loads").tag("reason", "miss").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotShareFailedLoad_withWaitingRequests() throws Exception {
+        // Arrange: only the first load fails, e.g. because the listing is not visible to its caller
+        Cache cache = cacheManager.getCache("listings");
+        AtomicInteger loads = new AtomicInteger();
+        Callable<String> loader = () -> {
+            Thread.sleep(100);
+            if (loads.incrementAndGet() == 1) {
+                throw new IllegalStateException("not visible");
+            }
+            return "listing 1";
+        };
+
+        // Act
+        List<String> results = runInParallel(() -> {
+            try {
+                return cache.get(1L, loader);
+            } catch (Cache.ValueRetrievalException e) {
+                return "failed";
+            }
+        });
+
+        // Assert
+        assertThat(results).containsOnlyOnce("failed").contains("listing 1");
+    }
+
+    @Test
+    void shouldCacheNullValues_withNegativeTtl() {
+        // Arrange
+        Cache cache = cacheManager.getCache("listings");
+        AtomicInteger loads = new AtomicInteger();
+        Callable<String> loader = () -> {
+            loads.incrementAndGet();
+            return null;
+        };
+
+        // Act
+        String first = cache.get(1L, loader);
+        String second = cache.get(1L, loader);
+
+        // Assert
+        assertThat(first).isNull();
+        assertThat(second).isNull();
+        assertThat(loads).hasValue(1);
+        assertThat(l2CacheManager.getCache("listings").get(1L).get())
+            .isInstanceOfSatisfying(CachedValue.class, entry -> assertThat(entry.timeToLive())
+                .isLessThanOrEqualTo(Duration.ofSeconds(30)));
+    }
+
+    @Test
+    void shouldRefreshEarly_whenEntryIsAboutToExpire() throws Exception {
+        // Arrange: expires in 1 ms, loading took 10 s, so a refresh is (practically) certain
+        l2CacheManager.getCache("listings").put(1L, new CachedValue("old", System.currentTimeMillis() + 1, 10_000));
+        Cache cache = cacheManager.getCache("listings");
+
+        // Act
+        String result = cache.get(1L, () -> "new");
+
+        // Assert
+        assertThat(result).isEqualTo("new");
+        assertThat(meterRegistry.get("cache.loads").tag("reason", "early_refresh").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotRefreshEarly_whenEntryIsFresh() {
+        // Arrange: expires in 10 min, loading took 1 ms
+        l2CacheManager.getCache("listings").put(1L, new CachedValue("old", System.currentTimeMillis() + 600_000, 1));
+        Cache cache = cacheManager.getCache("listings");
+
+        // Act
+        String result = cache.get(1L, () -> "new");
+
+        // Assert
+        assertThat(result).isEqualTo("old");
+    }
+
+    @Test
+    void shouldEvictManyKeysFromBothTiers_andPublishInvalidationsAtOnce() {
+        // Arrange
+        TwoLevelCache cache = cacheManager.getCache("listings");
+        cache.put(1L, "listing 1");
+        cache.put(2L, "listing 2");
+        cache.put(3L, "listing 3");
+
+        // Act
+        cache.evictAll(List.of(1L, 2L));
+
+        // Assert
+        assertThat(cache.get(1L)).isNull();
+        assertThat(cache.get(2L)).isNull();
+        assertThat(cache.get(3L).get()).isEqualTo("listing 3");
+        assertThat(l2CacheManager.getCache("listings").get(1L)).isNull();
+        verify(publisher).publishAll("listings", List.of("1", "2"));
+    }
+
+    @Test
+    void shouldLoadAllMissesWithOneCall_whenGettingManyKeys() {
+        // Arrange: 1 in L1, 2 in L2 only, 3 and 4 missing (4 does not exist)
+        TwoLevelCache cache = cacheManager.getCache("listings");
+        cache.put(1L, "listing 1");
+        l2CacheManager.getCache("listings").put(2L, new CachedValue("listing 2", System.currentTimeMillis() + 600_000, 1));
+        List<Set<Long>> loaderCalls = new ArrayList<>();
+
+        // Act
+        Map<Long, String> first = cache.getAll(List.of(4L, 3L, 2L, 1L), ids -> {
+            loaderCalls.add(ids);
+            return Map.of(3L, "listing 3");
+        });
+        Map<Long, String> second = cache.getAll(List.of(1L, 2L, 3L, 4L), ids -> {
+            loaderCalls.add(ids);
+            return Map.of();
+        });
+
+        // Assert
+        assertThat(first).containsExactly(
+            Map.entry(3L, "listing 3"), Map.entry(2L, "listing 2"), Map.entry(1L, "listing 1")
+        );
+        assertThat(second).containsOnlyKeys(1L, 2L, 3L);
+        assertThat(loaderCalls).containsExactly(Set.of(4L, 3L));
+        assertThat(l2CacheManager.getCache("listings").get(4L).get())
+            .isInstanceOfSatisfying(CachedValue.class, entry -> assertThat(entry.value()).isEqualTo(NullValue.INSTANCE));
+    }
+
+    @Test
+    void shouldKeepConcurrentPut_whenBatchLoadFinishesLater() {
+        // Arrange
+        TwoLevelCache cache = cacheManager.getCache("listings");
+
+        // Act: the listing is changed while the batch is being loaded
+        Map<Long, String> loaded = cache.getAll(List.of(1L), ids -> {
+            cache.put(1L, "listing 1 (updated)");
+            return Map.of(1L, "listing 1");
+        });
+
+        // Assert
+        assertThat(loaded).containsExactly(Map.entry(1L, "listing 1"));
+        assertThat(cache.get(1L).get()).isEqualTo("listing 1 (updated)");
+        assertThat(l2CacheManager.getCache("listings").get(1L).get())
+            .isInstanceOfSatisfying(CachedValue.class, entry -> assertThat(entry.value()).isEqualTo("listing 1 (updated)"));
+    }
+
+    private DefaultMessage message(CacheInvalidationMessage invalidation) throws Exception {
+        return new DefaultMessage(
+            CacheInvalidationPublisher.CHANNEL.getBytes(),
+            objectMapper.writeValueAsBytes(invalidation)
+        );
+    }
+
+    // starts all tasks at once and fails if any of them failed
+    private static <T> List<T> runInParallel(Callable<T> task) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(PARALLEL_REQUESTS)) {
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < PARALLEL_REQUESTS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+
+            return results;
+        }
+    }
+
+    private double count(String tier, String result) {
+        return meterRegistry.get("cache.tier.gets")
+            .tags("cache", "listings", "tier", tier, "result", result)
+            .counter()
+            .count();
+    }
+}
@@ -0,0 +1,45 @@
+package dev.baristop.portfolio.listingservice.command.config;
+
+import dev.baristop.portfolio.listingservice.utils.AbstractIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JobLockIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private JobLock jobLock;
+
+    @Test
+    void shouldSkipJob_whenAlreadyRunning() {
+        Optional<Optional<String>> result = jobLock.callExclusively(
+            "test-job",
+            () -> jobLock.callExclusively("test-job", () -> "nested run")
+        );
+
+        assertThat(result).contains(Optional.empty());
+    }
+
+    @Test
+    void shouldRunOtherJobs_whileOneIsRunning() {
+        Optional<Optional<String>> result = jobLock.callExclusively(
+            "test-job",
+            () -> jobLock.callExclusively("other-job", () -> "other run")
+        );
+
+        assertThat(result).contains(Optional.of("other run"));
+    }
+
+    @Test
+    void shouldReleaseLock_whenJobFails() {
+        assertThatThrownBy(() -> jobLock.callExclusively("test-job", () -> {
+            throw new IllegalStateException("failed");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(jobLock.callExclusively("test-job", () -> "next run")).contains("next run");
+    }
+}
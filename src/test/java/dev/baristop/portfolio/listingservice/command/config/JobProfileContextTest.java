@@ -0,0 +1,32 @@
+package dev.baristop.portfolio.listingservice.command.config;
+
+import dev.baristop.portfolio.listingservice.command.jobs.DisableListingsCommand;
+import dev.baristop.portfolio.listingservice.outbox.service.OutboxRelay;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles({"test", "job"})
+class JobProfileContextTest {
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    @Test
+    void shouldOnlyCreateTheBeansACommandNeeds() {
+        assertThat(context).isNotInstanceOf(WebApplicationContext.class);
+        assertThat(context.getBean(DisableListingsCommand.class)).isNotNull();
+
+        assertThat(context.getBeanNamesForType(OutboxRelay.class, true, false))
+            .noneMatch(name -> context.getBeanFactory().containsSingleton(name));
+        assertThat(context.getBeanNamesForType(KafkaTemplate.class, true, false))
+            .noneMatch(name -> context.getBeanFactory().containsSingleton(name));
+    }
+}
@@ -1,6 +1,6 @@
 package dev.baristop.portfolio.listingservice.command.jobs;
 
-import dev.baristop.portfolio.listingservice.listing.service.ListingService;
+import dev.baristop.portfolio.listingservice.listing.service.ListingExpiryService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import picocli.CommandLine;
@@ -9,27 +9,30 @@ import static org.mockito.Mockito.*;
 
 class DisableListingsCommandTest {
 
-    private ListingService listingService;
+    private static final int DEFAULT_CHUNK_SIZE = Integer.parseInt(DisableListingsCommand.CHUNK_SIZE_DEFAULT);
+
+    private ListingExpiryService listingExpiryService;
     private CommandLine cmd;
 
     @BeforeEach
     void setUp() {
-        listingService = mock(ListingService.class);
-        DisableListingsCommand command = new DisableListingsCommand(listingService);
+        listingExpiryService = mock(ListingExpiryService.class);
+        DisableListingsCommand command = new DisableListingsCommand(listingExpiryService);
         cmd = new CommandLine(command);
     }
 
     @Test
     void shouldCallServiceWithDefaultDaysWhenNoArgumentProvided() {
         // Arrange
-        when(listingService.disableListingsOlderThanDays(anyInt())).thenReturn(5);
+        when(listingExpiryService.disableListingsOlderThanDays(anyInt(), anyInt())).thenReturn(5);
 
         // Act
         int exitCode = cmd.execute();
 
         // Assert
-        verify(listingService).disableListingsOlderThanDays(
-            Integer.parseInt(DisableListingsCommand.OLDER_THAN_DEFAULT)
+        verify(listingExpiryService).disableListingsOlderThanDays(
+            Integer.parseInt(DisableListingsCommand.OLDER_THAN_DEFAULT),
+            DEFAULT_CHUNK_SIZE
         );
         assert (exitCode == 0);
     }
@@ -37,27 +40,58 @@ class DisableListingsCommandTest {
     @Test
     void shouldCallServiceWithProvidedDaysArgument() {
         // Arrange
-        when(listingService.disableListingsOlderThanDays(anyInt())).thenReturn(3);
+        when(listingExpiryService.disableListingsOlderThanDays(anyInt(), anyInt())).thenReturn(3);
 
         // Act
         int exitCode = cmd.execute("--older-than", "7");
 
         // Assert
-        verify(listingService).disableListingsOlderThanDays(7);
+        verify(listingExpiryService).disableListingsOlderThanDays(7, DEFAULT_CHUNK_SIZE);
+        assert (exitCode == 0);
+    }
+
+    @Test
+    void shouldCallServiceWithProvidedChunkSize() {
+        // Arrange
+        when(listingExpiryService.disableListingsOlderThanDays(anyInt(), anyInt())).thenReturn(3);
+
+        // Act
+        int exitCode = cmd.execute("--chunk-size", "500");
+
+        // Assert
+        verify(listingExpiryService).disableListingsOlderThanDays(
+            Integer.parseInt(DisableListingsCommand.OLDER_THAN_DEFAULT),
+            500
+        );
         assert (exitCode == 0);
     }
 
+    @Test
+    void shouldRejectChunkSizeBelowOne() {
+        // Act
+        int zero = cmd.execute("--chunk-size", "0");
+        int negative = cmd.execute("--chunk-size=-5");
+
+        // Assert
+        verifyNoInteractions(listingExpiryService);
+        assert (zero == CommandLine.ExitCode.USAGE);
+        assert (negative == CommandLine.ExitCode.USAGE);
+    }
+
     @Test
     void shouldReturnNonZeroExitCodeOnException() {
         // Arrange
-        when(listingService.disableListingsOlderThanDays(anyInt()))
+        when(listingExpiryService.disableListingsOlderThanDays(anyInt(), anyInt()))
             .thenThrow(new RuntimeException("Something went wrong"));
 
         // Act
         int exitCode = cmd.execute();
 
         // Assert
-        verify(listingService).disableListingsOlderThanDays(Integer.parseInt(DisableListingsCommand.OLDER_THAN_DEFAULT));
+        verify(listingExpiryService).disableListingsOlderThanDays(
+            Integer.parseInt(DisableListingsCommand.OLDER_THAN_DEFAULT),
+            DEFAULT_CHUNK_SIZE
+        );
         assert (exitCode != 0);
     }
 }
@@ -0,0 +1,72 @@
+package dev.baristop.portfolio.listingservice.command.jobs;
+
+import dev.baristop.portfolio.listingservice.listing.dto.ListingQueryRequestDto;
+import dev.baristop.portfolio.listingservice.listing.entity.ListingStatus;
+import dev.baristop.portfolio.listingservice.listing.service.ListingExportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import picocli.CommandLine;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class ExportListingsCommandTest {
+
+    @TempDir
+    private Path tempDir;
+
+    private ListingExportService listingExportService;
+    private CommandLine cmd;
+
+    @BeforeEach
+    void setUp() {
+        listingExportService = mock(ListingExportService.class);
+        cmd = new CommandLine(new ExportListingsCommand(listingExportService));
+    }
+
+    @Test
+    void shouldPassFiltersToService() throws IOException {
+        // Arrange
+        Path file = tempDir.resolve("listings.ndjson");
+        ArgumentCaptor<ListingQueryRequestDto> filters = ArgumentCaptor.forClass(ListingQueryRequestDto.class);
+
+        // Act
+        int exitCode = cmd.execute("--status", "APPROVED", "--city", "Berlin", "--price-to", "500", file.toString());
+
+        // Assert
+        verify(listingExportService).exportListings(filters.capture(), any(), eq(false));
+        assertThat(filters.getValue().getStatus()).isEqualTo(ListingStatus.APPROVED);
+        assertThat(filters.getValue().getCity()).isEqualTo("Berlin");
+        assertThat(filters.getValue().getPriceTo()).isEqualByComparingTo(new BigDecimal("500"));
+        assertThat(exitCode).isZero();
+        assertThat(file).exists();
+    }
+
+    @Test
+    void shouldCompress_whenFileEndsWithGz() throws IOException {
+        // Act
+        int exitCode = cmd.execute(tempDir.resolve("listings.ndjson.gz").toString());
+
+        // Assert
+        verify(listingExportService).exportListings(any(), any(), eq(true));
+        assertThat(exitCode).isZero();
+    }
+
+    @Test
+    void shouldReturnNonZeroExitCodeOnException() throws IOException {
+        // Arrange
+        when(listingExportService.exportListings(any(), any(), anyBoolean())).thenThrow(new IOException("disk full"));
+
+        // Act
+        int exitCode = cmd.execute(tempDir.resolve("listings.ndjson").toString());
+
+        // Assert
+        assertThat(exitCode).isNotZero();
+    }
+}
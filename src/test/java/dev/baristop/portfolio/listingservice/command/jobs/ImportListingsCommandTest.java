@@ -0,0 +1,72 @@
+package dev.baristop.portfolio.listingservice.command.jobs;
+
+import dev.baristop.portfolio.listingservice.listing.dto.ListingImportFormat;
+import dev.baristop.portfolio.listingservice.listing.dto.ListingImportResult;
+import dev.baristop.portfolio.listingservice.listing.service.ListingImportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import picocli.CommandLine;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class ImportListingsCommandTest {
+
+    @TempDir
+    private Path tempDir;
+
+    private ListingImportService listingImportService;
+    private ImportListingsCommand command;
+    private CommandLine cmd;
+
+    @BeforeEach
+    void setUp() {
+        listingImportService = mock(ListingImportService.class);
+        command = new ImportListingsCommand(listingImportService);
+        cmd = new CommandLine(command);
+    }
+
+    @Test
+    void shouldDetectFormatByFileExtension() throws IOException {
+        // Arrange
+        Path file = Files.writeString(tempDir.resolve("listings.ndjson"), "{}\n");
+        when(listingImportService.importListings(any(), any())).thenReturn(new ListingImportResult(10, 8));
+
+        // Act
+        int exitCode = cmd.execute(file.toString());
+
+        // Assert
+        verify(listingImportService).importListings(any(), eq(ListingImportFormat.NDJSON));
+        assertThat(exitCode).isZero();
+        assertThat(command.getAffectedRows()).isEqualTo(8);
+    }
+
+    @Test
+    void shouldUseProvidedFormat() throws IOException {
+        // Arrange
+        Path file = Files.writeString(tempDir.resolve("listings.txt"), "{}\n");
+        when(listingImportService.importListings(any(), any())).thenReturn(new ListingImportResult(1, 1));
+
+        // Act
+        int exitCode = cmd.execute("--format", "NDJSON", file.toString());
+
+        // Assert
+        verify(listingImportService).importListings(any(), eq(ListingImportFormat.NDJSON));
+        assertThat(exitCode).isZero();
+    }
+
+    @Test
+    void shouldReturnNonZeroExitCode_whenFileIsMissing() {
+        // Act
+        int exitCode = cmd.execute(tempDir.resolve("missing.csv").toString());
+
+        // Assert
+        verifyNoInteractions(listingImportService);
+        assertThat(exitCode).isNotZero();
+    }
+}
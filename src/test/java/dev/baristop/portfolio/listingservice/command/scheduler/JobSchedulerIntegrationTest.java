@@ -0,0 +1,131 @@
+package dev.baristop.portfolio.listingservice.command.scheduler;
+
+import dev.baristop.portfolio.listingservice.command.config.CommandLineFactory;
+import dev.baristop.portfolio.listingservice.command.config.JobLock;
+import dev.baristop.portfolio.listingservice.command.scheduler.JobSchedulerProperties.ScheduledJob;
+import dev.baristop.portfolio.listingservice.listing.entity.Listing;
+import dev.baristop.portfolio.listingservice.listing.entity.ListingStatus;
+import dev.baristop.portfolio.listingservice.listing.repository.ListingRepository;
+import dev.baristop.portfolio.listingservice.listing.repository.UserFavoriteListingRepository;
+import dev.baristop.portfolio.listingservice.testdata.UserTestFactory;
+import dev.baristop.portfolio.listingservice.utils.AbstractIntegrationTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@TestPropertySource(properties = {
+    "app.jobs.scheduler.enabled=true",
+    "app.jobs.scheduler.jobs[0].command=listings:disable --older-than 14",
+    "app.jobs.scheduler.jobs[0].cron=0 0 3 1 1 *"
+})
+class JobSchedulerIntegrationTest extends AbstractIntegrationTest {
+
+    private static final String JOB_NAME = "listings:disable";
+
+    @Autowired
+    private JobScheduler jobScheduler;
+
+    @Autowired
+    private JobSchedulerProperties properties;
+
+    @Autowired
+    private JobLock jobLock;
+
+    @Autowired
+    private CommandLineFactory commandLineFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ListingRepository listingRepository;
+
+    @Autowired
+    private UserFavoriteListingRepository favoriteRepository;
+
+    @Autowired
+    private UserTestFactory userTestFactory;
+
+    @BeforeEach
+    void setUp() {
+        favoriteRepository.deleteAll();
+        listingRepository.deleteAll();
+    }
+
+    @Test
+    void shouldRunJob_andExportMetrics() {
+        createExpiredListing();
+        createExpiredListing();
+        ScheduledJob job = properties.jobs().getFirst();
+        long successfulRuns = successfulRuns();
+
+        int exitCode = jobScheduler.run(job);
+
+        assertThat(exitCode).isZero();
+        assertThat(successfulRuns()).isEqualTo(successfulRuns + 1);
+        assertThat(meterRegistry.get("jobs.last.affected.rows").tag("job", JOB_NAME).gauge().value())
+            .isEqualTo(2);
+        assertThat(meterRegistry.get("jobs.last.success").tag("job", JOB_NAME).gauge().value())
+            .isCloseTo(Instant.now().getEpochSecond(), within(5.0));
+    }
+
+    @Test
+    void shouldSkipJob_whenRunningElsewhere() {
+        ScheduledJob job = properties.jobs().getFirst();
+
+        int exitCode = jobLock.callExclusively(JOB_NAME, () -> jobScheduler.run(job)).orElseThrow();
+
+        assertThat(exitCode).isEqualTo(CommandLineFactory.SKIPPED_EXIT_CODE);
+        assertThat(meterRegistry.get("jobs.runs").tags("job", JOB_NAME, "result", "skipped").timer().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotReuseOptionsOfEarlierRuns() {
+        createExpiredListing();
+
+        assertThat(jobScheduler.run(new ScheduledJob(JOB_NAME + " --older-than 60", "0 0 3 1 1 *"))).isZero();
+        assertThat(meterRegistry.get("jobs.last.affected.rows").tag("job", JOB_NAME).gauge().value()).isZero();
+
+        // the default of --older-than applies again
+        assertThat(jobScheduler.run(new ScheduledJob(JOB_NAME, "0 0 3 1 1 *"))).isZero();
+        assertThat(meterRegistry.get("jobs.last.affected.rows").tag("job", JOB_NAME).gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldCreateNewCommandInstances_forEveryCommandLine() {
+        Object first = commandLineFactory.create().getSubcommands().get(JOB_NAME).getCommand();
+        Object second = commandLineFactory.create().getSubcommands().get(JOB_NAME).getCommand();
+
+        assertThat(first).isNotSameAs(second);
+    }
+
+    // the meter registry is shared by the tests
+    private long successfulRuns() {
+        Timer timer = meterRegistry.find("jobs.runs").tags("job", JOB_NAME, "result", "success").timer();
+        return timer != null ? timer.count() : 0;
+    }
+
+    // createdAt is not updatable, so it is set before the insert
+    private void createExpiredListing() {
+        Listing listing = new Listing();
+        listing.setTitle("Expired listing");
+        listing.setDescription("Test Description");
+        listing.setCity("Test City");
+        listing.setPrice(BigDecimal.valueOf(100));
+        listing.setOwner(userTestFactory.createDefaultUser());
+        listing.setStatus(ListingStatus.APPROVED);
+        listing.setCreatedAt(Instant.now().minus(30, ChronoUnit.DAYS));
+        listingRepository.saveAndFlush(listing);
+    }
+}
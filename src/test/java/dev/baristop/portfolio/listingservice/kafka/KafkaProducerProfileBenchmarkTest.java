@@ -0,0 +1,153 @@
+package dev.baristop.portfolio.listingservice.kafka;
+
+import dev.baristop.portfolio.listingservice.kafka.dto.ListingStatusChangedEvent;
+import dev.baristop.portfolio.listingservice.listing.entity.ListingStatus;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Compares the default producer settings with the <code>kafka-throughput</code> profile against an embedded broker.
+ * <p>
+ * The producer settings are read from the application's yaml files. Messages are sent like the outbox relay does:
+ * a batch of <code>app.outbox.relay.batch-size</code> messages, flush, wait for all acknowledgements.
+ * Disabled by default, run with: <code>mvn test -Dtest=KafkaProducerProfileBenchmarkTest -Dbenchmark=true</code>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class KafkaProducerProfileBenchmarkTest {
+
+    private static final String TOPIC = ListingStatusProducer.TOPIC;
+    private static final int WARMUP_MESSAGES = 20_000;
+    private static final int MESSAGES = 200_000;
+    private static final String MAIN_RESOURCES = "src/main/resources/";
+
+    private EmbeddedKafkaKraftBroker broker;
+
+    @BeforeEach
+    void setUp() {
+        broker = new EmbeddedKafkaKraftBroker(1, 3, TOPIC);
+        broker.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void tearDown() {
+        broker.destroy();
+    }
+
+    @Test
+    void compareProducerProfiles() throws IOException {
+        Result defaults = measure("application.yaml");
+        Result throughput = measure("application-kafka-throughput.yaml", "application.yaml");
+
+        System.out.printf(
+            "%nListing status events via outbox relay batches (%d messages)%n"
+                + "                    relay batch   msgs/s    bytes sent   batch size avg   queue time avg%n"
+                + "  default:          %11d %8.0f %13d %14.0f B %13.2f ms%n"
+                + "  kafka-throughput: %11d %8.0f %13d %14.0f B %13.2f ms%n",
+            MESSAGES,
+            defaults.relayBatchSize(), defaults.messagesPerSecond(), defaults.bytesSent(),
+            defaults.batchSizeAvg(), defaults.queueTimeAvg(),
+            throughput.relayBatchSize(), throughput.messagesPerSecond(), throughput.bytesSent(),
+            throughput.batchSizeAvg(), throughput.queueTimeAvg()
+        );
+    }
+
+    // the first file takes precedence, like an active profile over application.yaml;
+    // read from the sources, since the test application.yaml shadows the main one on the classpath
+    private Result measure(String... files) throws IOException {
+        List<PropertySource<?>> sources = new ArrayList<>();
+        YamlPropertySourceLoader loader = new YamlPropertySourceLoader();
+        for (String file : files) {
+            sources.addAll(loader.load(file, new FileSystemResource(MAIN_RESOURCES + file)));
+        }
+        Binder binder = new Binder(ConfigurationPropertySources.from(sources));
+
+        Map<String, Object> properties = binder.bind("spring.kafka", KafkaProperties.class).get()
+            .buildProducerProperties(null);
+        properties.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        int relayBatchSize = binder.bind("app.outbox.relay.batch-size", Integer.class).orElse(100);
+
+        DefaultKafkaProducerFactory<String, Object> producerFactory = new DefaultKafkaProducerFactory<>(properties);
+        try {
+            KafkaTemplate<String, Object> kafkaTemplate = new KafkaTemplate<>(producerFactory);
+
+            send(kafkaTemplate, WARMUP_MESSAGES, relayBatchSize);
+            double bytesBefore = metric(kafkaTemplate, "outgoing-byte-total");
+
+            long start = System.nanoTime();
+            send(kafkaTemplate, MESSAGES, relayBatchSize);
+            long elapsed = System.nanoTime() - start;
+
+            return new Result(
+                relayBatchSize,
+                MESSAGES / (elapsed / 1_000_000_000.0),
+                (long) (metric(kafkaTemplate, "outgoing-byte-total") - bytesBefore),
+                metric(kafkaTemplate, "batch-size-avg"),
+                metric(kafkaTemplate, "record-queue-time-avg")
+            );
+        } finally {
+            producerFactory.destroy();
+        }
+    }
+
+    private static void send(KafkaTemplate<String, Object> kafkaTemplate, int messages, int batchSize) {
+        for (int sent = 0; sent < messages; sent += batchSize) {
+            CompletableFuture<?>[] sends = new CompletableFuture[batchSize];
+            for (int i = 0; i < batchSize; i++) {
+                long listingId = sent + i;
+                sends[i] = kafkaTemplate.send(TOPIC, String.valueOf(listingId), event(listingId));
+            }
+            kafkaTemplate.flush();
+            CompletableFuture.allOf(sends).join();
+        }
+    }
+
+    private static ListingStatusChangedEvent event(long listingId) {
+        return new ListingStatusChangedEvent(
+            ListingStatus.APPROVED,
+            "user" + (listingId % 1000) + "@example.com",
+            listingId,
+            "Listing " + listingId,
+            "Bright two-room apartment close to the city center, fully furnished, available from next month."
+        );
+    }
+
+    // producer-level metric, aggregated over all brokers
+    private static double metric(KafkaTemplate<String, Object> kafkaTemplate, String name) {
+        for (Map.Entry<MetricName, ? extends Metric> metric : kafkaTemplate.metrics().entrySet()) {
+            if (metric.getKey().group().equals("producer-metrics") && metric.getKey().name().equals(name)) {
+                return ((Number) metric.getValue().metricValue()).doubleValue();
+            }
+        }
+
+        throw new IllegalArgumentException("Unknown producer metric: " + name);
+    }
+
+    private record Result(
+        int relayBatchSize,
+        double messagesPerSecond,
+        long bytesSent,
+        double batchSizeAvg,
+        double queueTimeAvg
+    ) {
+    }
+}
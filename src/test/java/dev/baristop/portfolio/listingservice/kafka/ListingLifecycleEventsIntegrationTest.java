@@ -0,0 +1,228 @@
+package dev.baristop.portfolio.listingservice.kafka;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.baristop.portfolio.listingservice.listing.dto.ListingUpdateRequest;
+import dev.baristop.portfolio.listingservice.listing.entity.Listing;
+import dev.baristop.portfolio.listingservice.listing.entity.ListingStatus;
+import dev.baristop.portfolio.listingservice.listing.repository.ListingRepository;
+import dev.baristop.portfolio.listingservice.listing.repository.UserFavoriteListingRepository;
+import dev.baristop.portfolio.listingservice.listing.service.FavoriteService;
+import dev.baristop.portfolio.listingservice.listing.service.ListingExpiryService;
+import dev.baristop.portfolio.listingservice.listing.service.ListingService;
+import dev.baristop.portfolio.listingservice.outbox.entity.OutboxEvent;
+import dev.baristop.portfolio.listingservice.outbox.repository.OutboxEventRepository;
+import dev.baristop.portfolio.listingservice.security.entity.User;
+import dev.baristop.portfolio.listingservice.security.repository.UserRepository;
+import dev.baristop.portfolio.listingservice.testdata.ListingTestFactory;
+import dev.baristop.portfolio.listingservice.testdata.UserTestFactory;
+import dev.baristop.portfolio.listingservice.utils.AbstractIntegrationTest;
+import jakarta.transaction.Transactional;
+import jakarta.transaction.Transactional.TxType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ListingLifecycleEventsIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private ListingService listingService;
+
+    @Autowired
+    private ListingExpiryService listingExpiryService;
+
+    @Autowired
+    private FavoriteService favoriteService;
+
+    @Autowired
+    private ListingRepository listingRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ListingTestFactory listingTestFactory;
+
+    @Autowired
+    private UserTestFactory userTestFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserFavoriteListingRepository favoriteRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        favoriteRepository.deleteAll();
+        listingRepository.deleteAll();
+        outboxEventRepository.deleteAll();
+    }
+
+    @Test
+    void shouldEmitEventsKeyedByListingId_forCreateUpdateAndDelete() {
+        User owner = userTestFactory.createDefaultUser();
+        Listing listing = listingService.createListing(listingTestFactory.defaultListingCreateRequest(), owner);
+
+        ListingUpdateRequest update = listingTestFactory.defaultListingUpdateRequest();
+        update.setDescription(listing.getDescription());
+        update.setCity(listing.getCity());
+        update.setPrice(listing.getPrice());
+        listingService.updateListing(listing.getId(), update, owner);
+
+        listingService.deleteListing(listing.getId(), userTestFactory.asPrincipal(owner));
+
+        List<OutboxEvent> events = lifecycleEvents();
+        assertThat(events).extracting(OutboxEvent::getMessageKey).containsOnly(listing.getId().toString());
+        assertThat(events).extracting(event -> read(event).get("type").asText())
+            .containsExactly("CREATED", "UPDATED", "DELETED");
+
+        JsonNode created = read(events.get(0));
+        assertThat(created.get("title").asText()).isEqualTo("Test Title");
+        assertThat(created.get("ownerKeycloakId").asText()).isEqualTo(owner.getKeycloakId());
+        assertThat(created.has("description")).isFalse();
+
+        JsonNode updated = read(events.get(1));
+        assertThat(updated.get("title").asText()).isEqualTo("Updated Title");
+        assertThat(updated.has("city")).isFalse();
+        assertThat(updated.has("price")).isFalse();
+        assertThat(updated.has("descriptionChanged")).isFalse();
+    }
+
+    @Test
+    @Transactional(TxType.NOT_SUPPORTED) // the update must wait for the row lock of another transaction
+    void shouldEnqueueUpdatedEvent_afterTheEventsOfChangesHoldingTheRowLock() throws Exception {
+        User owner = userTestFactory.createUser("row-lock-owner");
+        Listing listing = listingTestFactory.createListing("Locked");
+        listing.setOwner(owner);
+        listingRepository.saveAndFlush(listing);
+        ListingUpdateRequest update = listingTestFactory.defaultListingUpdateRequest();
+
+        try (Connection admin = dataSource.getConnection()) {
+            // e.g. an admin approving the listing at the same time, holding the row lock
+            admin.setAutoCommit(false);
+            try (PreparedStatement lock = admin.prepareStatement("SELECT id FROM listings WHERE id = ? FOR UPDATE")) {
+                lock.setLong(1, listing.getId());
+                lock.executeQuery().close();
+            }
+
+            CompletableFuture<?> updating = CompletableFuture.runAsync(
+                () -> listingService.updateListing(listing.getId(), update, owner)
+            );
+            awaitLockWait();
+
+            long statusEventId;
+            try (PreparedStatement insert = admin.prepareStatement(
+                "INSERT INTO outbox_events (topic, message_key, payload_type, payload, created_at, attempts) "
+                    + "VALUES (?, ?, 'StatusChanged', '{}', localtimestamp, 0) RETURNING id")) {
+                insert.setString(1, ListingLifecycleProducer.TOPIC);
+                insert.setString(2, listing.getId().toString());
+                try (ResultSet resultSet = insert.executeQuery()) {
+                    resultSet.next();
+                    statusEventId = resultSet.getLong(1);
+                }
+            }
+            admin.commit();
+            updating.get(10, TimeUnit.SECONDS);
+
+            List<OutboxEvent> events = lifecycleEvents();
+            assertThat(events).hasSize(2);
+            assertThat(events.getFirst().getId()).isEqualTo(statusEventId);
+            assertThat(read(events.getLast()).get("type").asText()).isEqualTo("UPDATED");
+        } finally {
+            outboxEventRepository.deleteAll();
+            listingRepository.deleteAll();
+            userRepository.delete(owner);
+        }
+    }
+
+    @Test
+    void shouldEmitStatusChangedEvent_perDisabledListing() {
+        // createdAt is not updatable, so it is set before the insert
+        Listing expired = new Listing();
+        expired.setTitle("Expired");
+        expired.setDescription("Test Description");
+        expired.setCity("Test City");
+        expired.setPrice(BigDecimal.valueOf(100));
+        expired.setOwner(userTestFactory.createDefaultUser());
+        expired.setStatus(ListingStatus.APPROVED);
+        expired.setCreatedAt(Instant.now().minus(30, ChronoUnit.DAYS));
+        listingRepository.saveAndFlush(expired);
+
+        Listing recent = listingTestFactory.createListing("Recent");
+        recent.setStatus(ListingStatus.APPROVED);
+        listingRepository.saveAndFlush(recent);
+
+        int disabled = listingExpiryService.disableListingsOlderThanDays(14, 100);
+
+        assertThat(disabled).isEqualTo(1);
+        List<OutboxEvent> events = lifecycleEvents();
+        assertThat(events).hasSize(1);
+        assertThat(events.getFirst().getMessageKey()).isEqualTo(expired.getId().toString());
+        JsonNode event = read(events.getFirst());
+        assertThat(event.get("type").asText()).isEqualTo("STATUS_CHANGED");
+        assertThat(event.get("status").asText()).isEqualTo("INACTIVE");
+    }
+
+    @Test
+    void shouldEmitFavoriteEvents_onlyWhenFavoritesChange() {
+        Listing listing = listingTestFactory.createDefaultListing();
+        User user = userTestFactory.createUser("favorite-user");
+
+        favoriteService.addFavorite(user.getId(), listing.getId());
+        favoriteService.addFavorite(user.getId(), listing.getId());
+        favoriteService.removeFavorite(user.getId(), listing.getId());
+        favoriteService.removeFavorite(user.getId(), listing.getId());
+
+        assertThat(lifecycleEvents()).extracting(event -> read(event).get("type").asText())
+            .containsExactly("FAVORITE_ADDED", "FAVORITE_REMOVED");
+        assertThat(read(lifecycleEvents().getFirst()).get("userId").asLong()).isEqualTo(user.getId());
+    }
+
+    private void awaitLockWait() throws InterruptedException {
+        String sql = "SELECT count(*) FROM pg_stat_activity WHERE wait_event_type = 'Lock' AND datname = current_database()";
+        for (int i = 0; i < 100 && jdbcTemplate.queryForObject(sql, Long.class) == 0; i++) {
+            Thread.sleep(50);
+        }
+    }
+
+    private List<OutboxEvent> lifecycleEvents() {
+        return outboxEventRepository.findAll().stream()
+            .filter(event -> event.getTopic().equals(ListingLifecycleProducer.TOPIC))
+            .sorted(Comparator.comparing(OutboxEvent::getId))
+            .toList();
+    }
+
+    private JsonNode read(OutboxEvent event) {
+        try {
+            return objectMapper.readTree(event.getPayload());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package dev.baristop.portfolio.listingservice.kafka;
+
+import dev.baristop.portfolio.listingservice.kafka.dto.ListingLifecycleEvent;
+import dev.baristop.portfolio.listingservice.kafka.dto.ListingLifecycleEventType;
+import dev.baristop.portfolio.listingservice.listing.entity.Listing;
+import dev.baristop.portfolio.listingservice.outbox.service.OutboxService;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class ListingLifecycleProducerTest {
+
+    private final OutboxService outboxService = mock(OutboxService.class);
+    private final ListingLifecycleProducer producer = new ListingLifecycleProducer(outboxService);
+
+    @Test
+    void listingUpdated_shouldSendChangedFieldsOnly() {
+        // Arrange
+        Listing listing = listing();
+        ListingLifecycleProducer.ListingFields previous = ListingLifecycleProducer.ListingFields.of(listing);
+        listing.setTitle("New Title");
+        listing.setDescription("New Description");
+        listing.setPrice(new BigDecimal("100.00"));
+        ArgumentCaptor<ListingLifecycleEvent> captor = ArgumentCaptor.forClass(ListingLifecycleEvent.class);
+
+        // Act
+        producer.listingUpdated(previous, listing);
+
+        // Assert
+        verify(outboxService).enqueue(eq(ListingLifecycleProducer.TOPIC), eq("1"), captor.capture());
+        ListingLifecycleEvent event = captor.getValue();
+        assertThat(event.getType()).isEqualTo(ListingLifecycleEventType.UPDATED);
+        assertThat(event.getListingId()).isEqualTo(1L);
+        assertThat(event.getTitle()).isEqualTo("New Title");
+        assertThat(event.getDescriptionChanged()).isTrue();
+        assertThat(event.getPrice()).isNull();
+        assertThat(event.getCity()).isNull();
+    }
+
+    @Test
+    void listingUpdated_shouldSendNothing_whenNothingChanged() {
+        // Arrange
+        Listing listing = listing();
+
+        // Act
+        producer.listingUpdated(ListingLifecycleProducer.ListingFields.of(listing), listing);
+
+        // Assert
+        verifyNoInteractions(outboxService);
+    }
+
+    @Test
+    void favoriteChanged_shouldSendFavoriteRemoved() {
+        // Arrange
+        ArgumentCaptor<ListingLifecycleEvent> captor = ArgumentCaptor.forClass(ListingLifecycleEvent.class);
+
+        // Act
+        producer.favoriteChanged(1L, 42L, false);
+
+        // Assert
+        verify(outboxService).enqueue(anyString(), eq("1"), captor.capture());
+        assertThat(captor.getValue().getType()).isEqualTo(ListingLifecycleEventType.FAVORITE_REMOVED);
+        assertThat(captor.getValue().getUserId()).isEqualTo(42L);
+    }
+
+    private static Listing listing() {
+        Listing listing = new Listing();
+        listing.setId(1L);
+        listing.setTitle("Title");
+        listing.setDescription("Description");
+        listing.setPrice(new BigDecimal("100.0"));
+        listing.setCity("City");
+
+        return listing;
+    }
+}
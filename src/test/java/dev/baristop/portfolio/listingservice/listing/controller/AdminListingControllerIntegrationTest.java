@@ -1,9 +1,12 @@
 package dev.baristop.portfolio.listingservice.listing.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import dev.baristop.portfolio.listingservice.kafka.dto.ListingStatusChangedEvent;
+import dev.baristop.portfolio.listingservice.listing.dto.ListingDto;
 import dev.baristop.portfolio.listingservice.listing.entity.Listing;
 import dev.baristop.portfolio.listingservice.listing.entity.ListingStatus;
 import dev.baristop.portfolio.listingservice.listing.repository.ListingRepository;
+import dev.baristop.portfolio.listingservice.outbox.service.OutboxRelay;
 import dev.baristop.portfolio.listingservice.security.WithMockCustomUser;
 import dev.baristop.portfolio.listingservice.security.entity.User;
 import dev.baristop.portfolio.listingservice.security.util.Role;
@@ -13,17 +16,29 @@ import dev.baristop.portfolio.listingservice.utils.AbstractIntegrationTest;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.zip.GZIPInputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -41,8 +56,14 @@ public class AdminListingControllerIntegrationTest extends AbstractIntegrationTe
     @Autowired
     private ListingRepository listingRepository;
 
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @MockitoBean
-    private KafkaTemplate<String, ListingStatusChangedEvent> kafkaTemplate;
+    private KafkaTemplate<String, Object> kafkaTemplate;
 
     @Test
     public void approveListing_withoutAuth_shouldReturn401() throws Exception {
@@ -70,7 +91,7 @@ public class AdminListingControllerIntegrationTest extends AbstractIntegrationTe
         listingRepository.save(listing);
 
         // Mock KafkaTemplate.send
-        when(kafkaTemplate.send(anyString(), any(ListingStatusChangedEvent.class)))
+        when(kafkaTemplate.send(anyString(), anyString(), any(ListingStatusChangedEvent.class)))
             .thenReturn(CompletableFuture.completedFuture(null));
 
         mockMvc.perform(patch("/api/v1/admin/listings/" + listing.getId() + "/approve"))
@@ -80,9 +101,13 @@ public class AdminListingControllerIntegrationTest extends AbstractIntegrationTe
         Listing updated = listingRepository.findById(listing.getId()).orElseThrow();
         assertThat(updated.getStatus()).isEqualTo(ListingStatus.APPROVED);
 
+        // the event is only stored with the status change, the relay publishes it
+        verifyNoInteractions(kafkaTemplate);
+        outboxRelay.publishPending();
+
         // check that kafkaTemplate.send was called and event content matches the expected one
         ArgumentCaptor<ListingStatusChangedEvent> captor = ArgumentCaptor.forClass(ListingStatusChangedEvent.class);
-        verify(kafkaTemplate).send(eq("listing-status-changed"), captor.capture());
+        verify(kafkaTemplate).send(eq("listing-status-changed"), eq(listing.getId().toString()), captor.capture());
 
         ListingStatusChangedEvent eventSent = captor.getValue();
         assertThat(eventSent.getListingTitle()).isEqualTo("Test Listing");
@@ -99,7 +124,7 @@ public class AdminListingControllerIntegrationTest extends AbstractIntegrationTe
         listingRepository.save(listing);
 
         // Mock KafkaTemplate.send
-        when(kafkaTemplate.send(anyString(), any(ListingStatusChangedEvent.class)))
+        when(kafkaTemplate.send(anyString(), anyString(), any(ListingStatusChangedEvent.class)))
             .thenReturn(CompletableFuture.completedFuture(null));
 
         mockMvc.perform(patch("/api/v1/admin/listings/" + listing.getId() + "/reject"))
@@ -109,13 +134,84 @@ public class AdminListingControllerIntegrationTest extends AbstractIntegrationTe
         Listing updated = listingRepository.findById(listing.getId()).orElseThrow();
         assertThat(updated.getStatus()).isEqualTo(ListingStatus.REJECTED);
 
+        // the event is only stored with the status change, the relay publishes it
+        verifyNoInteractions(kafkaTemplate);
+        outboxRelay.publishPending();
+
         // check that kafkaTemplate.send was called and event content matches the expected one
         ArgumentCaptor<ListingStatusChangedEvent> captor = ArgumentCaptor.forClass(ListingStatusChangedEvent.class);
-        verify(kafkaTemplate).send(eq("listing-status-changed"), captor.capture());
+        verify(kafkaTemplate).send(eq("listing-status-changed"), eq(listing.getId().toString()), captor.capture());
 
         ListingStatusChangedEvent eventSent = captor.getValue();
         assertThat(eventSent.getListingTitle()).isEqualTo("Test Listing");
         assertThat(eventSent.getStatus()).isEqualTo(ListingStatus.REJECTED);
         assertThat(eventSent.getRecipient()).isEqualTo("user1@example.com");
     }
+
+    @Test
+    @WithMockCustomUser(id = "user1", roles = {Role.USER})
+    public void exportListings_asUser_shouldReturn403() throws Exception {
+        mockMvc.perform(get("/api/v1/admin/listings/export"))
+            .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockCustomUser(id = "admin1", roles = {Role.ADMIN})
+    public void exportListings_asAdmin_shouldStreamMatchingListingsAsNdjson() throws Exception {
+        listingRepository.deleteAll();
+        Listing first = createListing("Berlin", ListingStatus.APPROVED);
+        createListing("Hamburg", ListingStatus.APPROVED);
+        Listing second = createListing("Berlin", ListingStatus.APPROVED);
+        createListing("Berlin", ListingStatus.PENDING);
+
+        byte[] body = mockMvc.perform(get("/api/v1/admin/listings/export")
+                .param("city", "berlin")
+                .param("status", "APPROVED")
+                .param("size", "1"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+            .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"listings.ndjson\""))
+            .andReturn().getResponse().getContentAsByteArray();
+
+        // pagination parameters are ignored, listings are ordered by ID
+        assertThat(parseNdjson(body)).extracting(ListingDto::getId).containsExactly(first.getId(), second.getId());
+    }
+
+    @Test
+    @WithMockCustomUser(id = "admin1", roles = {Role.ADMIN})
+    public void exportListings_withGzip_shouldReturnCompressedNdjson() throws Exception {
+        listingRepository.deleteAll();
+        Listing listing = createListing("Berlin", ListingStatus.APPROVED);
+
+        byte[] body = mockMvc.perform(get("/api/v1/admin/listings/export").param("gzip", "true"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("application/gzip"))
+            .andReturn().getResponse().getContentAsByteArray();
+
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            List<ListingDto> listings = parseNdjson(input.readAllBytes());
+            assertThat(listings).extracting(ListingDto::getId).containsExactly(listing.getId());
+            assertThat(listings.getFirst().getCity()).isEqualTo("Berlin");
+        }
+    }
+
+    private Listing createListing(String city, ListingStatus status) {
+        Listing listing = listingTestFactory.createDefaultListing();
+        listing.setCity(city);
+        listing.setStatus(status);
+
+        return listingRepository.saveAndFlush(listing);
+    }
+
+    private List<ListingDto> parseNdjson(byte[] body) throws IOException {
+        String ndjson = new String(body, StandardCharsets.UTF_8);
+        assertThat(ndjson).endsWith("\n");
+
+        List<ListingDto> listings = new ArrayList<>();
+        for (String line : ndjson.split("\n")) {
+            listings.add(objectMapper.readValue(line, ListingDto.class));
+        }
+
+        return listings;
+    }
 }
@@ -1,12 +1,16 @@
 package dev.baristop.portfolio.listingservice.listing.controller;
 
+import com.jayway.jsonpath.JsonPath;
 import dev.baristop.portfolio.listingservice.listing.dto.ListingCreateRequest;
+import dev.baristop.portfolio.listingservice.listing.dto.ListingCursor;
 import dev.baristop.portfolio.listingservice.listing.dto.ListingUpdateRequest;
 import dev.baristop.portfolio.listingservice.listing.entity.Listing;
 import dev.baristop.portfolio.listingservice.listing.entity.ListingStatus;
 import dev.baristop.portfolio.listingservice.listing.entity.UserFavoriteListing;
 import dev.baristop.portfolio.listingservice.listing.repository.ListingRepository;
 import dev.baristop.portfolio.listingservice.listing.repository.UserFavoriteListingRepository;
+import dev.baristop.portfolio.listingservice.listing.service.ListingService;
+import dev.baristop.portfolio.listingservice.outbox.repository.OutboxEventRepository;
 import dev.baristop.portfolio.listingservice.security.WithMockCustomUser;
 import dev.baristop.portfolio.listingservice.security.entity.User;
 import dev.baristop.portfolio.listingservice.security.util.Role;
@@ -16,17 +20,26 @@ import dev.baristop.portfolio.listingservice.utils.AbstractIntegrationTest;
 import dev.baristop.portfolio.listingservice.utils.JsonTestUtils;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.comparesEqualTo;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.anonymous;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -47,6 +60,12 @@ public class ListingControllerIntegrationTest extends AbstractIntegrationTest {
     @Autowired
     private UserFavoriteListingRepository favoriteRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
     @Test
     void createListing_shouldReturn401_whenUserIsAnonymous() throws Exception {
         mockMvc.perform(post("/api/v1/listings")
@@ -318,12 +337,125 @@ public class ListingControllerIntegrationTest extends AbstractIntegrationTest {
             .andExpect(status().isNotFound());
     }
 
+    @Test
+    @WithMockCustomUser(roles = {Role.USER})
+    void getListing_shouldReturn404_whenPendingListingWasCachedForOwnerAndNotOwner() throws Exception {
+        Listing listing = listingTestFactory.createDefaultListing();
+
+        // the owner's request caches the pending listing
+        mockMvc.perform(get("/api/v1/listings/{id}", listing.getId()))
+            .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/listings/{id}", listing.getId()).with(anonymous()))
+            .andExpect(status().isNotFound());
+    }
+
     @Test
     void getListing_shouldReturn404_whenListingNotFound() throws Exception {
         mockMvc.perform(get("/api/v1/listings/{id}", 999))
             .andExpect(status().isNotFound());
     }
 
+    @Test
+    void getListing_shouldReturn304_whenETagMatches() throws Exception {
+        Listing listing = listingTestFactory.createDefaultListing();
+        listing.setStatus(ListingStatus.APPROVED);
+        listingRepository.saveAndFlush(listing);
+
+        String eTag = mockMvc.perform(get("/api/v1/listings/{id}", listing.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(eTag).startsWith("\"" + listing.getId() + "-");
+
+        mockMvc.perform(get("/api/v1/listings/{id}", listing.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, eTag))
+            .andExpect(content().string(""));
+    }
+
+    @Test
+    @WithMockCustomUser(roles = {Role.USER})
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // the cache is written once the update has committed
+    void getListing_shouldReturnNewETag_whenListingWasUpdated() throws Exception {
+        Listing listing = listingTestFactory.createDefaultListing();
+        try {
+            String eTag = mockMvc.perform(get("/api/v1/listings/{id}", listing.getId()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+            ListingUpdateRequest updateRequest = listingTestFactory.defaultListingUpdateRequest();
+            mockMvc.perform(put("/api/v1/listings/{id}", listing.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(JsonTestUtils.toJson(updateRequest)))
+                .andExpect(status().isOk());
+
+            String newETag = mockMvc.perform(get("/api/v1/listings/{id}", listing.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value(updateRequest.getTitle()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+            assertThat(newETag).isNotNull().isNotEqualTo(eTag);
+        } finally {
+            outboxEventRepository.deleteAll();
+            listingRepository.deleteAll();
+        }
+    }
+
+    @Test
+    void getAllListings_shouldReturn304_whenWeakETagMatches() throws Exception {
+        Listing listing = listingTestFactory.createDefaultListing();
+        listing.setStatus(ListingStatus.APPROVED);
+        listingRepository.saveAndFlush(listing);
+
+        String eTag = mockMvc.perform(get("/api/v1/listings"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(eTag).startsWith("W/");
+
+        mockMvc.perform(get("/api/v1/listings").header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+    }
+
+    @Test
+    void getListingsByIds_shouldReturnVisibleListingsInRequestedOrder() throws Exception {
+        Listing first = listingTestFactory.createDefaultListing();
+        first.setStatus(ListingStatus.APPROVED);
+        Listing second = listingTestFactory.createDefaultListing();
+        second.setStatus(ListingStatus.APPROVED);
+        Listing pending = listingTestFactory.createDefaultListing();
+        listingRepository.saveAllAndFlush(List.of(first, second));
+
+        mockMvc.perform(get("/api/v1/listings/batch")
+                .param("ids", second.getId() + "," + pending.getId() + ",999999," + first.getId() + "," + second.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$[0].id").value(second.getId()))
+            .andExpect(jsonPath("$[1].id").value(first.getId()));
+    }
+
+    @Test
+    @WithMockCustomUser(roles = {Role.USER})
+    void getListingsByIds_shouldReturnPendingListings_whenOwner() throws Exception {
+        Listing pending = listingTestFactory.createDefaultListing();
+
+        mockMvc.perform(get("/api/v1/listings/batch").param("ids", pending.getId().toString()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$[0].id").value(pending.getId()));
+    }
+
+    @Test
+    void getListingsByIds_shouldReturn400_whenTooManyIds() throws Exception {
+        String ids = LongStream.rangeClosed(1, ListingService.MAX_BATCH_SIZE + 1)
+            .mapToObj(Long::toString)
+            .collect(Collectors.joining(","));
+
+        mockMvc.perform(get("/api/v1/listings/batch").param("ids", ids))
+            .andExpect(status().isBadRequest());
+    }
+
     @Test
     void getAllListings_InvalidSortField() throws Exception {
         mockMvc.perform(get("/api/v1/listings")
@@ -467,13 +599,203 @@ public class ListingControllerIntegrationTest extends AbstractIntegrationTest {
             .andExpect(jsonPath("$.data[1].isFavorite").value(false));
     }
 
+    @Test
+    public void getAllListing_shouldReturn200_whenSearchedByFullText() throws Exception {
+        User user = userTestFactory.createUser("test-user1");
+
+        listingTestFactory.prepareDataForAllListings(user);
+
+        // "Galaxy S23" is approved and matches both terms, "Galaxy S22" only matches "galaxy"
+        mockMvc.perform(get("/api/v1/listings")
+                .param("q", "galaxy OR used")
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.data.length()").value(2))
+            .andExpect(jsonPath("$.data[0].title").value("Galaxy S23"))
+            .andExpect(jsonPath("$.data[1].title").value("Galaxy S22"))
+            .andExpect(jsonPath("$.pagination.totalElements").value(2));
+
+        mockMvc.perform(get("/api/v1/listings")
+                .param("q", "karlsruhe -s23")
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.data.length()").value(1))
+            .andExpect(jsonPath("$.data[0].title").value("Galaxy S22"));
+    }
+
+    @Test
+    public void getAllListing_shouldPaginateWithCursor() throws Exception {
+        User user = userTestFactory.createUser("test-user1");
+
+        listingTestFactory.prepareDataForAllListings(user);
+
+        // first page: no cursor yet
+        String firstPage = mockMvc.perform(get("/api/v1/listings")
+                .param("mode", "CURSOR")
+                .param("size", "1")
+                .param("sortDir", "asc")
+                .param("sortBy", "title")
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.data.length()").value(1))
+            .andExpect(jsonPath("$.data[0].title").value("Galaxy S22"))
+            .andExpect(jsonPath("$.pagination.isLast").value(false))
+            .andExpect(jsonPath("$.pagination.totalElements").doesNotExist())
+            .andExpect(jsonPath("$.pagination.prevCursor").doesNotExist())
+            .andReturn().getResponse().getContentAsString();
+
+        String nextCursor = JsonPath.read(firstPage, "$.pagination.nextCursor");
+
+        // second (last) page
+        String secondPage = mockMvc.perform(get("/api/v1/listings")
+                .param("cursor", nextCursor)
+                .param("size", "1")
+                .param("sortDir", "asc")
+                .param("sortBy", "title")
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.data.length()").value(1))
+            .andExpect(jsonPath("$.data[0].title").value("Galaxy S23"))
+            .andExpect(jsonPath("$.pagination.isLast").value(true))
+            .andExpect(jsonPath("$.pagination.nextCursor").doesNotExist())
+            .andReturn().getResponse().getContentAsString();
+
+        String prevCursor = JsonPath.read(secondPage, "$.pagination.prevCursor");
+
+        // back to the first page
+        mockMvc.perform(get("/api/v1/listings")
+                .param("cursor", prevCursor)
+                .param("size", "1")
+                .param("sortDir", "asc")
+                .param("sortBy", "title")
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.data.length()").value(1))
+            .andExpect(jsonPath("$.data[0].title").value("Galaxy S22"))
+            .andExpect(jsonPath("$.pagination.prevCursor").doesNotExist())
+            .andExpect(jsonPath("$.pagination.nextCursor").exists());
+    }
+
+    @Test
+    public void getAllListing_shouldPaginateWithSlice() throws Exception {
+        User user = userTestFactory.createUser("test-user1");
+
+        listingTestFactory.prepareDataForAllListings(user);
+
+        mockMvc.perform(get("/api/v1/listings")
+                .param("mode", "SLICE")
+                .param("page", "1")
+                .param("size", "1")
+                .param("sortBy", "title")
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.data.length()").value(1))
+            .andExpect(jsonPath("$.data[0].title").value("Galaxy S22"))
+            .andExpect(jsonPath("$.pagination.page").value(1))
+            .andExpect(jsonPath("$.pagination.isLast").value(false))
+            .andExpect(jsonPath("$.pagination.totalElements").doesNotExist())
+            .andExpect(jsonPath("$.pagination.totalPages").doesNotExist())
+            .andExpect(jsonPath("$.pagination.estimatedTotalElements").doesNotExist());
+
+        mockMvc.perform(get("/api/v1/listings")
+                .param("mode", "SLICE")
+                .param("page", "2")
+                .param("size", "1")
+                .param("sortBy", "title")
+                .param("title", "galaxy")
+                .param("estimateTotal", "true")
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.data.length()").value(1))
+            .andExpect(jsonPath("$.data[0].title").value("Galaxy S23"))
+            .andExpect(jsonPath("$.pagination.page").value(2))
+            .andExpect(jsonPath("$.pagination.isLast").value(true))
+            // no estimate for filters beyond the status
+            .andExpect(jsonPath("$.pagination.estimatedTotalElements").doesNotExist());
+    }
+
+    @Test
+    public void getAllListing_shouldEstimateTotal_whenTextFiltersAreBlank() throws Exception {
+        User user = userTestFactory.createUser("test-user1");
+
+        listingTestFactory.prepareDataForAllListings(user);
+        listingRepository.flush();
+        // the estimate is read from the planner statistics
+        jdbcTemplate.execute("ANALYZE listings");
+
+        // blank text filters are ignored by the query, so it is still status-only
+        mockMvc.perform(get("/api/v1/listings")
+                .param("mode", "SLICE")
+                .param("title", "")
+                .param("city", " ")
+                .param("estimateTotal", "true")
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.pagination.estimatedTotalElements").exists());
+    }
+
+    @Test
+    public void getAllListing_shouldReturn400_whenCursorDoesNotMatchSorting() throws Exception {
+        User user = userTestFactory.createUser("test-user1");
+
+        listingTestFactory.prepareDataForAllListings(user);
+
+        String firstPage = mockMvc.perform(get("/api/v1/listings")
+                .param("mode", "CURSOR")
+                .param("size", "1")
+                .param("sortBy", "title")
+            )
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+
+        String nextCursor = JsonPath.read(firstPage, "$.pagination.nextCursor");
+
+        mockMvc.perform(get("/api/v1/listings")
+                .param("cursor", nextCursor)
+                .param("sortBy", "price")
+            )
+            .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/v1/listings").param("cursor", "not-a-cursor"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void getAllListing_shouldReturn400_whenCursorIsTampered() throws Exception {
+        User user = userTestFactory.createUser("test-user1");
+
+        listingTestFactory.prepareDataForAllListings(user);
+
+        // title cursor without sort value
+        mockMvc.perform(get("/api/v1/listings")
+                .param("cursor", new ListingCursor("title", "asc", null, 1L, false).encode())
+                .param("sortBy", "title")
+            )
+            .andExpect(status().isBadRequest());
+
+        // price cursor without sort value
+        mockMvc.perform(get("/api/v1/listings")
+                .param("cursor", new ListingCursor("price", "asc", null, 1L, false).encode())
+                .param("sortBy", "price")
+            )
+            .andExpect(status().isBadRequest());
+
+        // price cursor with a malformed sort value
+        mockMvc.perform(get("/api/v1/listings")
+                .param("cursor", new ListingCursor("price", "asc", "abc", 1L, false).encode())
+                .param("sortBy", "price")
+            )
+            .andExpect(status().isBadRequest());
+    }
+
     private ResultMatcher[] listingMatches(Listing listing) {
         return new ResultMatcher[]{
             jsonPath("$.id").value(listing.getId()),
             jsonPath("$.title").value(listing.getTitle()),
             jsonPath("$.description").value(listing.getDescription()),
             jsonPath("$.city").value(listing.getCity()),
-            jsonPath("$.price").value(listing.getPrice()),
+            // the price is read back from the database, so compare numerically (scale may differ)
+            jsonPath("$.price", comparesEqualTo(listing.getPrice()), BigDecimal.class),
             jsonPath("$.status").value(listing.getStatus().toString()),
             jsonPath("$.createdAt").exists()
         };
@@ -0,0 +1,70 @@
+package dev.baristop.portfolio.listingservice.listing.controller;
+
+import dev.baristop.portfolio.listingservice.listing.entity.Listing;
+import dev.baristop.portfolio.listingservice.listing.entity.ListingStatus;
+import dev.baristop.portfolio.listingservice.listing.repository.ListingRepository;
+import dev.baristop.portfolio.listingservice.testdata.ListingTestFactory;
+import dev.baristop.portfolio.listingservice.utils.AbstractIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(properties = "app.cache.serialized-responses.enabled=true")
+public class ListingControllerSerializedResponseIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ListingRepository listingRepository;
+
+    @Autowired
+    private ListingTestFactory listingTestFactory;
+
+    @Test
+    void getListing_shouldWritePreSerializedListing() throws Exception {
+        Listing listing = listingTestFactory.createDefaultListing();
+        listing.setStatus(ListingStatus.APPROVED);
+        listingRepository.saveAndFlush(listing);
+
+        String first = mockMvc.perform(get("/api/v1/listings/{id}", listing.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+            .andExpect(jsonPath("$.id").value(listing.getId()))
+            .andExpect(jsonPath("$.title").value(listing.getTitle()))
+            .andExpect(jsonPath("$.status").value("APPROVED"))
+            .andExpect(jsonPath("$.isFavorite").doesNotExist())
+            .andReturn().getResponse().getContentAsString();
+
+        String second = mockMvc.perform(get("/api/v1/listings/{id}", listing.getId()))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+
+        assertThat(second).isEqualTo(first);
+    }
+
+    @Test
+    void getListing_shouldReturn304_whenETagMatches() throws Exception {
+        Listing listing = listingTestFactory.createDefaultListing();
+        listing.setStatus(ListingStatus.APPROVED);
+        listingRepository.saveAndFlush(listing);
+
+        String eTag = mockMvc.perform(get("/api/v1/listings/{id}", listing.getId()))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/v1/listings/{id}", listing.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, eTag))
+            .andExpect(content().string(""));
+    }
+}
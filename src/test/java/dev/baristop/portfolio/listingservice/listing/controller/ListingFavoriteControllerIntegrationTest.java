@@ -15,7 +15,9 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -75,4 +77,36 @@ public class ListingFavoriteControllerIntegrationTest extends AbstractIntegratio
             "Favorite should be removed after second toggle"
         );
     }
+
+    @Test
+    @WithMockCustomUser(id = "user1", roles = {Role.USER})
+    void addAndRemoveFavorite_shouldBeIdempotent() throws Exception {
+        Listing listing = listingTestFactory.createDefaultListing();
+        userTestFactory.createUser("user1");
+
+        // adding twice keeps a single favorite
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(put("/api/v1/listings/{id}/favorite", listing.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.isFavorite").value(true));
+        }
+        assertEquals(1, favoriteRepository.count(), "Favorite should exist once");
+
+        // removing twice is fine as well
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(delete("/api/v1/listings/{id}/favorite", listing.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.isFavorite").value(false));
+        }
+        assertTrue(favoriteRepository.findAll().isEmpty(), "Favorite should be removed");
+    }
+
+    @Test
+    @WithMockCustomUser(id = "user1", roles = {Role.USER})
+    void addFavorite_shouldReturn404_whenListingDoesNotExist() throws Exception {
+        userTestFactory.createUser("user1");
+
+        mockMvc.perform(put("/api/v1/listings/{id}/favorite", 999999))
+            .andExpect(status().isNotFound());
+    }
 }
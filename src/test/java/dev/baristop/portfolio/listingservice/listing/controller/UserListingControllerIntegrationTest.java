@@ -1,5 +1,6 @@
 package dev.baristop.portfolio.listingservice.listing.controller;
 
+import dev.baristop.portfolio.listingservice.listing.entity.Listing;
 import dev.baristop.portfolio.listingservice.listing.entity.UserFavoriteListing;
 import dev.baristop.portfolio.listingservice.listing.repository.UserFavoriteListingRepository;
 import dev.baristop.portfolio.listingservice.security.WithMockCustomUser;
@@ -13,6 +14,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.is;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -85,4 +91,48 @@ public class UserListingControllerIntegrationTest extends AbstractIntegrationTes
             .andExpect(jsonPath("$.data[0].isFavorite").value(true))
             .andExpect(jsonPath("$.data[1].isFavorite").value(true));
     }
+
+    @Test
+    @WithMockCustomUser(id = "user1", roles = {Role.USER})
+    public void getMyFavorites_shouldPaginateInDatabase_whenManyListingsExist() throws Exception {
+        User currentUser = userTestFactory.createUser("user1");
+        User otherUser = userTestFactory.createUser("user2");
+
+        // 600 listings priced 1..600: user1 favorites every 3rd one (200), user2 every other one
+        List<Listing> listings = listingTestFactory.createListings(otherUser, 600);
+        favoriteRepository.saveAll(IntStream.range(0, listings.size())
+            .filter(i -> i % 3 == 0)
+            .mapToObj(i -> new UserFavoriteListing(currentUser, listings.get(i)))
+            .toList());
+        favoriteRepository.saveAll(IntStream.range(0, listings.size())
+            .filter(i -> i % 2 == 1)
+            .mapToObj(i -> new UserFavoriteListing(otherUser, listings.get(i)))
+            .toList());
+
+        // favorites of user1 sorted by price desc: 598, 595, 592, ... -> page 3 starts with the 51st
+        mockMvc.perform(get("/api/v1/users/me/favorites")
+                .param("page", "3")
+                .param("size", "25")
+                .param("sortBy", "price")
+                .param("sortDir", "desc")
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.data.length()").value(25))
+            .andExpect(jsonPath("$.data[0].price").value(598 - 50 * 3))
+            .andExpect(jsonPath("$.data[24].price").value(598 - 74 * 3))
+            .andExpect(jsonPath("$.data[*].isFavorite", everyItem(is(true))))
+            .andExpect(jsonPath("$.pagination.totalElements").value(200))
+            .andExpect(jsonPath("$.pagination.totalPages").value(8));
+
+        // filters are applied on top of the favorites: prices 1..100 contain 34 favorites of user1
+        mockMvc.perform(get("/api/v1/users/me/favorites")
+                .param("page", "2")
+                .param("size", "25")
+                .param("priceTo", "100")
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.data.length()").value(9))
+            .andExpect(jsonPath("$.pagination.totalElements").value(34))
+            .andExpect(jsonPath("$.pagination.isLast").value(true));
+    }
 }
@@ -0,0 +1,167 @@
+package dev.baristop.portfolio.listingservice.listing.repository;
+
+import dev.baristop.portfolio.listingservice.listing.entity.Listing;
+import dev.baristop.portfolio.listingservice.security.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks on the JDBC level that inserts are sent in batches (sequence IDs, <code>hibernate.jdbc.batch_size</code>
+ * and <code>order_inserts</code>).
+ */
+@DataJpaTest
+class ListingBatchInsertTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private StatementRecorder statementRecorder;
+
+    @Test
+    void shouldInsertListingsInOneBatch() {
+        // Arrange
+        User owner = createUser("owner");
+        entityManager.flush();
+        statementRecorder.clear();
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            entityManager.persist(createListing("Listing " + i, owner));
+        }
+        entityManager.flush();
+
+        // Assert
+        assertThat(statementRecorder.inserts()).containsExactly("batch of 10: insert into listings");
+    }
+
+    @Test
+    void shouldGroupInsertsByTable_whenEntitiesAreMixed() {
+        // Arrange
+        statementRecorder.clear();
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            User owner = createUser("owner" + i);
+            entityManager.persist(createListing("Listing " + i, owner));
+        }
+        entityManager.flush();
+
+        // Assert
+        assertThat(statementRecorder.inserts())
+            .containsExactly("batch of 5: insert into users", "batch of 5: insert into listings");
+    }
+
+    private User createUser(String keycloakId) {
+        User user = new User(keycloakId);
+        user.setEmail(keycloakId + "@example.com");
+
+        return entityManager.persist(user);
+    }
+
+    private static Listing createListing(String title, User owner) {
+        Listing listing = new Listing();
+        listing.setTitle(title);
+        listing.setDescription("Test Description");
+        listing.setCity("Test City");
+        listing.setPrice(BigDecimal.valueOf(100));
+        listing.setOwner(owner);
+
+        return listing;
+    }
+
+    /**
+     * Wraps the data source and records the executed INSERT statements, as "batch of n: insert into table" for
+     * batches and "single: insert into table" for statements executed on their own.
+     */
+    @TestConfiguration
+    static class StatementRecorder implements BeanPostProcessor {
+
+        private final List<String> inserts = new CopyOnWriteArrayList<>();
+
+        List<String> inserts() {
+            return inserts;
+        }
+
+        void clear() {
+            inserts.clear();
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource dataSource) {
+                return proxy(DataSource.class, dataSource, (method, args, result) ->
+                    result instanceof Connection connection ? recordingConnection(connection) : result
+                );
+            }
+
+            return bean;
+        }
+
+        private Connection recordingConnection(Connection connection) {
+            return proxy(Connection.class, connection, (method, args, result) -> {
+                if (result instanceof PreparedStatement statement && method.equals("prepareStatement")) {
+                    return recordingStatement(statement, (String) args[0]);
+                }
+                return result;
+            });
+        }
+
+        private PreparedStatement recordingStatement(PreparedStatement statement, String sql) {
+            String insert = insertInto(sql);
+            AtomicInteger batchSize = new AtomicInteger();
+
+            return proxy(PreparedStatement.class, statement, (method, args, result) -> {
+                if (insert != null) {
+                    switch (method) {
+                        case "addBatch" -> batchSize.incrementAndGet();
+                        case "executeBatch" -> inserts.add("batch of " + batchSize.getAndSet(0) + ": " + insert);
+                        case "executeUpdate", "execute" -> inserts.add("single: " + insert);
+                        default -> {
+                        }
+                    }
+                }
+                return result;
+            });
+        }
+
+        // "insert into listings" for an INSERT statement, otherwise null
+        private static String insertInto(String sql) {
+            String[] words = sql.strip().toLowerCase().split("\\s+");
+
+            return words.length > 2 && words[0].equals("insert") ? "insert into " + words[2] : null;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, T target, ResultHandler handler) {
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+                try {
+                    return handler.handle(method.getName(), args, method.invoke(target, args));
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+        }
+
+        // may replace the result of a call, e.g. by a recording proxy
+        private interface ResultHandler {
+            Object handle(String method, Object[] args, Object result);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package dev.baristop.portfolio.listingservice.listing.repository;
+
+import dev.baristop.portfolio.listingservice.listing.dto.ListingDto;
+import dev.baristop.portfolio.listingservice.listing.dto.ListingQueryRequestDto;
+import dev.baristop.portfolio.listingservice.listing.entity.Listing;
+import dev.baristop.portfolio.listingservice.listing.entity.ListingStatus;
+import dev.baristop.portfolio.listingservice.listing.mapper.ListingMapper;
+import dev.baristop.portfolio.listingservice.listing.mapper.ListingMapperImpl;
+import dev.baristop.portfolio.listingservice.listing.specification.ListingSpecification;
+import dev.baristop.portfolio.listingservice.security.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares reading listing pages as entities (mapped via {@link ListingMapper}) with direct DTO projections.
+ * <p>
+ * Each iteration includes the flush at the end of the unit of work, which has to dirty check all managed entities.
+ * Disabled by default, run with: <code>mvn test -Dtest=ListingReadBenchmarkTest -Dbenchmark=true</code>
+ */
+@DataJpaTest
+@Import(ListingMapperImpl.class)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ListingReadBenchmarkTest {
+
+    private static final int LISTINGS = 5_000;
+    private static final int PAGE_SIZE = 100;
+    private static final int WARMUP_ITERATIONS = 50;
+    private static final int ITERATIONS = 200;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ListingRepository listingRepository;
+
+    @Autowired
+    private ListingMapper listingMapper;
+
+    private final Specification<Listing> spec = approvedListings();
+
+    @BeforeEach
+    void setUp() {
+        User owner = new User();
+        owner.setKeycloakId("benchmark-owner");
+        owner.setEmail("benchmark@example.com");
+        entityManager.persist(owner);
+
+        for (int i = 0; i < LISTINGS; i++) {
+            entityManager.persist(new Listing(
+                "Listing " + i,
+                "Description " + i,
+                BigDecimal.valueOf(i),
+                "City " + (i % 50),
+                ListingStatus.APPROVED,
+                owner
+            ));
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void compareEntityAndProjectionReads() {
+        Pageable pageable = PageRequest.of(3, PAGE_SIZE, Sort.by("price").and(Sort.by("id")));
+
+        Supplier<List<ListingDto>> entityRead = () -> listingRepository.findAll(spec, pageable).stream()
+            .map(listingMapper::toDto)
+            .toList();
+        Supplier<List<ListingDto>> projectionRead = () -> listingRepository.findAllAsDto(spec, pageable).getContent();
+
+        assertThat(projectionRead.get())
+            .extracting(ListingDto::getId)
+            .containsExactlyElementsOf(entityRead.get().stream().map(ListingDto::getId).toList());
+
+        Result entities = measure(entityRead);
+        Result projections = measure(projectionRead);
+
+        System.out.printf(
+            "%nListing page reads (%d rows/page, %d iterations)%n"
+                + "  entities + mapper: %8.3f ms/op %10d bytes/op%n"
+                + "  DTO projection:    %8.3f ms/op %10d bytes/op%n",
+            PAGE_SIZE, ITERATIONS,
+            entities.millisPerOp(), entities.bytesPerOp(),
+            projections.millisPerOp(), projections.bytesPerOp()
+        );
+    }
+
+    private Result measure(Supplier<List<ListingDto>> read) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            readAndFlush(read);
+        }
+
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+
+        long bytesBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            readAndFlush(read);
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - bytesBefore;
+
+        return new Result(elapsed / 1_000_000.0 / ITERATIONS, allocated / ITERATIONS);
+    }
+
+    // one unit of work: read the page, flush (dirty checking) and start over with an empty persistence context
+    private void readAndFlush(Supplier<List<ListingDto>> read) {
+        assertThat(read.get()).hasSize(PAGE_SIZE);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private static Specification<Listing> approvedListings() {
+        ListingQueryRequestDto request = new ListingQueryRequestDto();
+        request.setStatus(ListingStatus.APPROVED);
+
+        return ListingSpecification.withFilters(request);
+    }
+
+    private record Result(double millisPerOp, long bytesPerOp) {
+    }
+}
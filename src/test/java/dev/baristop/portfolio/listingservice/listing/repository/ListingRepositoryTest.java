@@ -8,8 +8,10 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -56,14 +58,19 @@ class ListingRepositoryTest {
     }
 
     @Test
-    void testUpdateStatusOlderThan() {
+    void testFindNextIdsByStatusAndCreatedAtBefore_andUpdateStatusByIdInAndStatus() {
         Instant threshold = Instant.now().minusSeconds(10 * 24 * 3600);
 
-        int updated = listingRepository.updateStatusOlderThan(
-            threshold,
-            ListingStatus.APPROVED,
-            ListingStatus.INACTIVE,
-            Instant.now()
+        List<Long> ids = listingRepository.findNextIdsByStatusAndCreatedAtBefore(
+            ListingStatus.APPROVED, threshold, 0, Limit.of(10)
+        );
+        assertThat(ids).containsExactly(listing1.getId());
+        assertThat(listingRepository.findNextIdsByStatusAndCreatedAtBefore(
+            ListingStatus.APPROVED, threshold, listing1.getId(), Limit.of(10)
+        )).isEmpty();
+
+        int updated = listingRepository.updateStatusByIdInAndStatus(
+            ids, ListingStatus.APPROVED, ListingStatus.INACTIVE, Instant.now()
         );
 
         assertThat(updated).isEqualTo(1);
@@ -75,6 +82,22 @@ class ListingRepositoryTest {
         assertThat(notUpdated.getStatus()).isEqualTo(ListingStatus.APPROVED);
     }
 
+    @Test
+    void testUpdateStatusByIdInAndStatus_skipsListingsWithAnotherStatus() {
+        listing2.setStatus(ListingStatus.REJECTED);
+        entityManager.merge(listing2);
+        entityManager.flush();
+        entityManager.clear();
+
+        int updated = listingRepository.updateStatusByIdInAndStatus(
+            List.of(listing1.getId(), listing2.getId()), ListingStatus.APPROVED, ListingStatus.INACTIVE, Instant.now()
+        );
+
+        assertThat(updated).isEqualTo(1);
+        assertThat(listingRepository.findById(listing2.getId()).orElseThrow().getStatus())
+            .isEqualTo(ListingStatus.REJECTED);
+    }
+
     @Test
     void testFindByTitleAndDescriptionAndCity() {
         Optional<Listing> found = listingRepository.findByTitleAndDescriptionAndCity(
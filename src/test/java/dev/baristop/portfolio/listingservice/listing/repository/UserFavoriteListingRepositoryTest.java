@@ -11,6 +11,7 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
@@ -82,6 +83,20 @@ class UserFavoriteListingRepositoryTest {
             .doesNotContain(listing2.getId());
     }
 
+    @Test
+    void testFindFavoriteListingIdsByUserIdAndListingIdIn_ShouldOnlyReturnRequestedIds() {
+        UserFavoriteListing favorite2 = new UserFavoriteListing(owner, entityManager.find(Listing.class, listing2.getId()));
+        entityManager.persistAndFlush(favorite2);
+
+        Set<Long> favoriteListingIds = userFavoriteListingRepository.findFavoriteListingIdsByUserIdAndListingIdIn(
+            owner.getId(),
+            List.of(listing2.getId(), -1L)
+        );
+
+        // listing1 is a favorite as well, but not part of the requested ids
+        assertThat(favoriteListingIds).containsExactly(listing2.getId());
+    }
+
     @Test
     void testFindByUserAndListing_ShouldFindExistingFavorite() {
         // Arrange: Re-fetch entities to ensure they are detached if necessary,
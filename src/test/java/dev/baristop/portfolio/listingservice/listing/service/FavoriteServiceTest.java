@@ -1,5 +1,6 @@
 package dev.baristop.portfolio.listingservice.listing.service;
 
+import dev.baristop.portfolio.listingservice.exception.ResourceNotFoundException;
 import dev.baristop.portfolio.listingservice.listing.entity.Listing;
 import dev.baristop.portfolio.listingservice.listing.entity.UserFavoriteListing;
 import dev.baristop.portfolio.listingservice.listing.repository.ListingRepository;
@@ -9,16 +10,28 @@ import dev.baristop.portfolio.listingservice.security.repository.UserRepository;
 import dev.baristop.portfolio.listingservice.testdata.ListingTestFactory;
 import dev.baristop.portfolio.listingservice.testdata.UserTestFactory;
 import dev.baristop.portfolio.listingservice.utils.AbstractIntegrationTest;
+import jakarta.transaction.Transactional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class FavoriteServiceIntegrationTest extends AbstractIntegrationTest {
 
+    private static final int PARALLEL_REQUESTS = 32;
+
     @Autowired
     private FavoriteService favoriteService;
 
@@ -88,4 +101,74 @@ class FavoriteServiceIntegrationTest extends AbstractIntegrationTest {
         boolean third = favoriteService.toggleFavorite(user.getId(), listing.getId());
         assertThat(third).isTrue();
     }
+
+    @Test
+    void addFavorite_throwsNotFound_whenListingDoesNotExist() {
+        assertThatThrownBy(() -> favoriteService.addFavorite(user.getId(), listing.getId() + 1000))
+            .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void addFavorite_rethrows_whenUserDoesNotExist() {
+        // a violation of the user foreign key is not a missing listing
+        assertThatThrownBy(() -> favoriteService.addFavorite(user.getId() + 1000, listing.getId()))
+            .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    /**
+     * Runs without a test transaction, so that the data is visible to the parallel requests.
+     * Each request runs in its own transaction, like concurrent HTTP requests would.
+     */
+    @Test
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    void favoriteOperations_shouldNotFail_whenRunInParallel() throws Exception {
+        try {
+            // parallel adds: a single favorite, no unique constraint violations
+            List<Boolean> added = runInParallel(() -> {
+                favoriteService.addFavorite(user.getId(), listing.getId());
+                return true;
+            });
+            assertThat(added).hasSize(PARALLEL_REQUESTS);
+            assertThat(favoriteRepository.count()).isEqualTo(1);
+
+            // parallel toggles: every toggle succeeds, the favorite exists at most once
+            List<Boolean> toggled = runInParallel(() -> favoriteService.toggleFavorite(user.getId(), listing.getId()));
+            assertThat(toggled).hasSize(PARALLEL_REQUESTS);
+            assertThat(favoriteRepository.count()).isLessThanOrEqualTo(1);
+
+            // parallel removes: nothing left
+            runInParallel(() -> {
+                favoriteService.removeFavorite(user.getId(), listing.getId());
+                return false;
+            });
+            assertThat(favoriteRepository.count()).isZero();
+        } finally {
+            favoriteRepository.deleteAll();
+            listingRepository.deleteAll();
+            userRepository.deleteAll();
+        }
+    }
+
+    // starts all tasks at once and fails if any of them failed
+    private static <T> List<T> runInParallel(Callable<T> task) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(PARALLEL_REQUESTS)) {
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < PARALLEL_REQUESTS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+
+            return results;
+        }
+    }
 }
@@ -0,0 +1,122 @@
+package dev.baristop.portfolio.listingservice.listing.service;
+
+import dev.baristop.portfolio.listingservice.cache.TwoLevelCacheManager;
+import dev.baristop.portfolio.listingservice.command.entity.JobCheckpoint;
+import dev.baristop.portfolio.listingservice.command.repository.JobCheckpointRepository;
+import dev.baristop.portfolio.listingservice.listing.entity.Listing;
+import dev.baristop.portfolio.listingservice.listing.entity.ListingStatus;
+import dev.baristop.portfolio.listingservice.listing.repository.ListingRepository;
+import dev.baristop.portfolio.listingservice.listing.repository.UserFavoriteListingRepository;
+import dev.baristop.portfolio.listingservice.testdata.UserTestFactory;
+import dev.baristop.portfolio.listingservice.utils.AbstractIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ListingExpiryServiceIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private ListingExpiryService listingExpiryService;
+
+    @Autowired
+    private ListingCacheService listingCacheService;
+
+    @Autowired
+    private ListingRepository listingRepository;
+
+    @Autowired
+    private UserFavoriteListingRepository favoriteRepository;
+
+    @Autowired
+    private JobCheckpointRepository jobCheckpointRepository;
+
+    @Autowired
+    private UserTestFactory userTestFactory;
+
+    @Autowired
+    private TwoLevelCacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        favoriteRepository.deleteAll();
+        listingRepository.deleteAll();
+        jobCheckpointRepository.deleteAll();
+        cacheManager.getCacheNames().forEach(name -> Objects.requireNonNull(cacheManager.getCache(name)).clear());
+    }
+
+    @Test
+    void shouldDisableExpiredListingsInChunks_andEvictThemFromCache() {
+        List<Listing> expired = createListings(5, 30);
+        Listing recent = createListings(1, 1).getFirst();
+        Long cachedId = expired.get(2).getId();
+        assertThat(listingCacheService.findListing(cachedId).listing().getStatus()).isEqualTo(ListingStatus.APPROVED);
+
+        int disabled = listingExpiryService.disableListingsOlderThanDays(14, 2);
+
+        assertThat(disabled).isEqualTo(5);
+        assertThat(listingCacheService.findListing(cachedId).listing().getStatus()).isEqualTo(ListingStatus.INACTIVE);
+        assertThat(listingRepository.findById(recent.getId()).orElseThrow().getStatus()).isEqualTo(ListingStatus.APPROVED);
+        assertThat(jobCheckpointRepository.findById(ListingExpiryService.JOB_NAME)).isEmpty();
+    }
+
+    @Test
+    void shouldResumeAfterCheckpoint() {
+        List<Listing> expired = createListings(3, 30);
+        jobCheckpointRepository.save(
+            new JobCheckpoint(ListingExpiryService.JOB_NAME, expired.getFirst().getId(), ListingExpiryService.threshold(14))
+        );
+
+        int disabled = listingExpiryService.disableListingsOlderThanDays(14, 2);
+
+        assertThat(disabled).isEqualTo(2);
+        assertThat(listingRepository.findById(expired.getFirst().getId()).orElseThrow().getStatus())
+            .isEqualTo(ListingStatus.APPROVED);
+        assertThat(listingRepository.findById(expired.getLast().getId()).orElseThrow().getStatus())
+            .isEqualTo(ListingStatus.INACTIVE);
+        assertThat(jobCheckpointRepository.findById(ListingExpiryService.JOB_NAME)).isEmpty();
+    }
+
+    @Test
+    void shouldStartOver_whenCheckpointWasWrittenForAnotherThreshold() {
+        List<Listing> expired = createListings(3, 30);
+        // e.g. left by an interrupted run of the day before
+        jobCheckpointRepository.save(
+            new JobCheckpoint(ListingExpiryService.JOB_NAME, expired.getLast().getId(), ListingExpiryService.threshold(15))
+        );
+
+        int disabled = listingExpiryService.disableListingsOlderThanDays(14, 2);
+
+        assertThat(disabled).isEqualTo(3);
+        assertThat(listingRepository.findAllById(expired.stream().map(Listing::getId).toList()))
+            .extracting(Listing::getStatus)
+            .containsOnly(ListingStatus.INACTIVE);
+        assertThat(jobCheckpointRepository.findById(ListingExpiryService.JOB_NAME)).isEmpty();
+    }
+
+    // createdAt is not updatable, so it is set before the insert
+    private List<Listing> createListings(int count, int ageInDays) {
+        List<Listing> listings = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Listing listing = new Listing();
+            listing.setTitle("Listing " + i);
+            listing.setDescription("Test Description");
+            listing.setCity("Test City");
+            listing.setPrice(BigDecimal.valueOf(100));
+            listing.setOwner(userTestFactory.createDefaultUser());
+            listing.setStatus(ListingStatus.APPROVED);
+            listing.setCreatedAt(Instant.now().minus(ageInDays, ChronoUnit.DAYS));
+            listings.add(listingRepository.saveAndFlush(listing));
+        }
+
+        return listings;
+    }
+}
@@ -0,0 +1,124 @@
+package dev.baristop.portfolio.listingservice.listing.service;
+
+import dev.baristop.portfolio.listingservice.listing.dto.ListingImportFormat;
+import dev.baristop.portfolio.listingservice.listing.dto.ListingImportResult;
+import dev.baristop.portfolio.listingservice.listing.entity.Listing;
+import dev.baristop.portfolio.listingservice.listing.entity.ListingStatus;
+import dev.baristop.portfolio.listingservice.listing.repository.ListingRepository;
+import dev.baristop.portfolio.listingservice.listing.repository.UserFavoriteListingRepository;
+import dev.baristop.portfolio.listingservice.testdata.UserTestFactory;
+import dev.baristop.portfolio.listingservice.utils.AbstractIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ListingImportServiceIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private ListingImportService listingImportService;
+
+    @Autowired
+    private ListingRepository listingRepository;
+
+    @Autowired
+    private UserFavoriteListingRepository favoriteRepository;
+
+    @Autowired
+    private UserTestFactory userTestFactory;
+
+    @BeforeEach
+    void setUp() {
+        favoriteRepository.deleteAll();
+        listingRepository.deleteAll();
+        userTestFactory.createUser("partner-1");
+    }
+
+    @Test
+    void shouldImportCsv_andSkipUnknownOwnersAndInvalidStatuses() {
+        String csv = """
+            ownerKeycloakId,title,description,price,city,status
+            partner-1,"Loft, top floor",Bright loft,1200.50,Berlin,APPROVED
+            partner-1,Studio,Small studio,650,Hamburg,
+            unknown,Room,Shared flat,300,Munich,
+            partner-1,House,Detached house,2500,Cologne,SOLD
+            """;
+
+        ListingImportResult result = importListings(csv, ListingImportFormat.CSV);
+
+        assertThat(result.read()).isEqualTo(4);
+        assertThat(result.imported()).isEqualTo(2);
+        assertThat(result.skipped()).isEqualTo(2);
+
+        List<Listing> listings = findAllById();
+        assertThat(listings).extracting(Listing::getTitle).containsExactly("Loft, top floor", "Studio");
+        assertThat(listings).extracting(Listing::getStatus).containsExactly(ListingStatus.APPROVED, ListingStatus.PENDING);
+        assertThat(listings.getFirst().getPrice()).isEqualByComparingTo(new BigDecimal("1200.50"));
+        assertThat(listings.getFirst().getDescription()).isEqualTo("Bright loft");
+        assertThat(listings.getFirst().getOwner().getKeycloakId()).isEqualTo("partner-1");
+    }
+
+    @Test
+    void shouldImportNdjson() {
+        String ndjson = """
+            {"ownerKeycloakId":"partner-1","title":"Flat with \\"view\\"","description":"Line\\nbreak","price":900,"city":"Berlin"}
+
+            {"ownerKeycloakId":"unknown","title":"Room","description":"Shared flat","price":300,"city":"Munich"}
+            """;
+
+        ListingImportResult result = importListings(ndjson, ListingImportFormat.NDJSON);
+
+        assertThat(result.read()).isEqualTo(3);
+        assertThat(result.imported()).isEqualTo(1);
+
+        Listing listing = findAllById().getFirst();
+        assertThat(listing.getTitle()).isEqualTo("Flat with \"view\"");
+        assertThat(listing.getDescription()).isEqualTo("Line\nbreak");
+        assertThat(listing.getStatus()).isEqualTo(ListingStatus.PENDING);
+    }
+
+    @Test
+    void shouldSkipRowsBreakingTheListingConstraints() {
+        String csv = """
+            ownerKeycloakId,title,description,price,city
+            partner-1,Studio,Small studio,0,Hamburg
+            partner-1,Studio,,650,Hamburg
+            partner-1,S,Small studio,650,Hamburg
+            partner-1,%s,Small studio,650,Hamburg
+            partner-1,Studio,%s,650,Hamburg
+            partner-1,Studio,Small studio,,Hamburg
+            partner-1,Studio,Small studio,-1,Hamburg
+            partner-1,Studio,Small studio,650,
+            """.formatted("x".repeat(256), "x".repeat(2001));
+
+        ListingImportResult result = importListings(csv, ListingImportFormat.CSV);
+
+        assertThat(result.read()).isEqualTo(8);
+        assertThat(result.imported()).isEqualTo(1);
+        assertThat(result.skipped()).isEqualTo(7);
+        assertThat(findAllById()).extracting(Listing::getPrice).containsExactly(new BigDecimal("0.00"));
+    }
+
+    @Test
+    void shouldRejectUnknownCsvColumns() {
+        assertThatThrownBy(() -> importListings("ownerKeycloakId,title,rooms\n", ListingImportFormat.CSV))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("rooms");
+    }
+
+    private ListingImportResult importListings(String input, ListingImportFormat format) {
+        return listingImportService.importListings(new BufferedReader(new StringReader(input)), format);
+    }
+
+    private List<Listing> findAllById() {
+        return listingRepository.findAll().stream().sorted(Comparator.comparing(Listing::getId)).toList();
+    }
+}
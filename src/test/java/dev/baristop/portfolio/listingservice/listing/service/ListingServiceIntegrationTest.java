@@ -1,37 +1,67 @@
 package dev.baristop.portfolio.listingservice.listing.service;
 
+import dev.baristop.portfolio.listingservice.config.CacheConfig;
+import dev.baristop.portfolio.listingservice.exception.ResourceNotFoundException;
 import dev.baristop.portfolio.listingservice.kafka.ListingStatusProducer;
+import dev.baristop.portfolio.listingservice.listing.dto.ListingCreateRequest;
 import dev.baristop.portfolio.listingservice.listing.dto.ListingDto;
 import dev.baristop.portfolio.listingservice.listing.entity.Listing;
+import dev.baristop.portfolio.listingservice.listing.entity.ListingStatus;
+import dev.baristop.portfolio.listingservice.listing.mapper.ListingMapper;
 import dev.baristop.portfolio.listingservice.listing.repository.ListingRepository;
+import dev.baristop.portfolio.listingservice.outbox.repository.OutboxEventRepository;
 import dev.baristop.portfolio.listingservice.security.dto.UserPrincipal;
 import dev.baristop.portfolio.listingservice.security.entity.User;
 import dev.baristop.portfolio.listingservice.security.repository.UserRepository;
 import dev.baristop.portfolio.listingservice.testdata.ListingTestFactory;
 import dev.baristop.portfolio.listingservice.testdata.UserTestFactory;
 import dev.baristop.portfolio.listingservice.utils.AbstractIntegrationTest;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.transaction.Transactional;
+import jakarta.transaction.Transactional.TxType;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.testcontainers.containers.GenericContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @Testcontainers
-@SpringBootTest
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 @ExtendWith(SpringExtension.class)
 class ListingServiceIntegrationTest extends AbstractIntegrationTest {
 
+    private static final int PARALLEL_REQUESTS = 32;
+
     @Container
     static GenericContainer<?> redis = new GenericContainer<>("redis:7-alpine")
         .withExposedPorts(6379);
@@ -60,6 +90,21 @@ class ListingServiceIntegrationTest extends AbstractIntegrationTest {
     @Autowired
     private RedisConnectionFactory redisConnectionFactory;
 
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ListingMapper listingMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     @MockitoBean
     private ListingStatusProducer listingStatusProducer;
 
@@ -75,12 +120,21 @@ class ListingServiceIntegrationTest extends AbstractIntegrationTest {
         try (var connection = redisConnectionFactory.getConnection()) {
             connection.serverCommands().flushAll();
         }
+        // the in-process L1 cache survives the Redis flush
+        cacheManager.getCacheNames().forEach(name -> Objects.requireNonNull(cacheManager.getCache(name)).clear());
 
         owner = userTestFactory.createDefaultUser();
         userRepository.saveAndFlush(owner);
         ownerPrincipal = userTestFactory.asPrincipal(owner);
     }
 
+    @AfterEach
+    void tearDown() {
+        // tests without a test transaction commit their data
+        outboxEventRepository.deleteAll();
+        listingRepository.deleteAll();
+    }
+
     @Test
     void shouldReturnCachedListing_OnSecondInvocation() {
         Listing listing = listingTestFactory.createListing("Redis Test");
@@ -102,4 +156,156 @@ class ListingServiceIntegrationTest extends AbstractIntegrationTest {
         // Verify same content from cache
         assertEquals(dto1.getTitle(), dto2.getTitle());
     }
+
+    @Test
+    @Transactional(TxType.NOT_SUPPORTED) // the listing must be committed to be visible to the parallel requests
+    void shouldQueryDatabaseOnce_whenManyRequestsMissTogether() throws Exception {
+        Listing listing = listingTestFactory.createListing("Burst Test");
+        listing.setOwner(owner);
+        listing.setStatus(ListingStatus.APPROVED); // public, so loading it is a single query
+        listingRepository.saveAndFlush(listing);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // burst of requests for the same uncached listing
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<ListingDto>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(PARALLEL_REQUESTS)) {
+            for (int i = 0; i < PARALLEL_REQUESTS; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return listingService.getListingById(listing.getId(), ownerPrincipal);
+                }));
+            }
+            start.countDown();
+
+            for (Future<ListingDto> result : results) {
+                assertEquals("Burst Test", result.get().getTitle());
+            }
+        }
+
+        assertEquals(1, statistics.getQueryExecutionCount());
+    }
+
+    @Test
+    void shouldStoreEntriesUnderVersionedKeys() {
+        Listing listing = listingTestFactory.createListing("Versioned");
+
+        listingService.getListingById(listing.getId(), ownerPrincipal);
+
+        // nodes of the previous release read the unversioned keys and cannot decode the binary format
+        try (var connection = redisConnectionFactory.getConnection()) {
+            assertTrue(connection.keyCommands().exists(redisKey(CacheConfig.KEY_PREFIX + "listings::", listing.getId())));
+            assertFalse(connection.keyCommands().exists(redisKey("listings::", listing.getId())));
+        }
+    }
+
+    @Test
+    void shouldIgnoreEntriesOfPreviousCacheFormats() {
+        Listing listing = listingTestFactory.createListing("Current");
+        ListingDto previous = listingMapper.toDto(listing);
+        previous.setTitle("Previous");
+
+        // ListingDto entries written by previous releases, as JSON under the unversioned and the v2 key
+        try (var connection = redisConnectionFactory.getConnection()) {
+            byte[] json = CacheConfig.jsonSerializer().serialize(previous);
+            connection.stringCommands().set(redisKey("listings::", listing.getId()), json);
+            connection.stringCommands().set(redisKey("v2:listings::", listing.getId()), json);
+        }
+
+        assertEquals("Current", listingService.getListingById(listing.getId(), ownerPrincipal).getTitle());
+    }
+
+    @Test
+    void shouldCacheMissingListing() {
+        Long missingId = Long.MAX_VALUE;
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        assertThrows(ResourceNotFoundException.class, () -> listingService.getListingById(missingId, ownerPrincipal));
+        assertThrows(ResourceNotFoundException.class, () -> listingService.getListingById(missingId, ownerPrincipal));
+
+        assertEquals(1, statistics.getQueryExecutionCount());
+    }
+
+    @Test
+    @Transactional(TxType.NOT_SUPPORTED) // the cache is written once the listing has committed
+    void shouldReturnCreatedListing_whenItsIdWasCachedAsMissing() {
+        Listing existing = listingService.createListing(createRequest("First"), owner);
+        Long nextId = existing.getId() + 1;
+
+        // requested before it exists: cached as missing
+        assertThrows(ResourceNotFoundException.class, () -> listingService.getListingById(nextId, ownerPrincipal));
+
+        Listing created = listingService.createListing(createRequest("Second"), owner);
+
+        assertEquals(nextId, created.getId());
+        assertEquals("Second", listingService.getListingById(nextId, ownerPrincipal).getTitle());
+    }
+
+    @Test
+    @Transactional(TxType.NOT_SUPPORTED) // the cache is written once the deletion has committed
+    void shouldCacheDeletedListingAsMissing() {
+        Listing listing = listingService.createListing(createRequest("To Delete"), owner);
+        Long id = listing.getId();
+        listingService.getListingById(id, ownerPrincipal);
+
+        listingService.deleteListing(id, ownerPrincipal);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        assertThrows(ResourceNotFoundException.class, () -> listingService.getListingById(id, ownerPrincipal));
+        assertEquals(0, statistics.getQueryExecutionCount());
+    }
+
+    @Test
+    @Transactional(TxType.NOT_SUPPORTED)
+    void shouldKeepCachedListing_whenDeletionRollsBack() {
+        Listing listing = listingService.createListing(createRequest("Rolled Back"), owner);
+        Long id = listing.getId();
+        listingService.getListingById(id, ownerPrincipal);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            listingService.deleteListing(id, ownerPrincipal);
+            status.setRollbackOnly();
+        });
+
+        // no tombstone for a listing that still exists
+        assertEquals("Rolled Back", listingService.getListingById(id, ownerPrincipal).getTitle());
+    }
+
+    @Test
+    void shouldLoadBatchWithOneQuery_andServeItFromCacheAfterwards() {
+        Listing cached = listingService.createListing(createRequest("Cached"), owner);
+        Listing uncached = listingService.createListing(createRequest("Uncached"), owner);
+        listingService.getListingById(cached.getId(), ownerPrincipal);
+        List<Long> ids = List.of(uncached.getId(), Long.MAX_VALUE, cached.getId());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<ListingDto> first = listingService.getListingsByIds(ids, ownerPrincipal);
+        assertEquals(1, statistics.getQueryExecutionCount());
+
+        List<ListingDto> second = listingService.getListingsByIds(ids, ownerPrincipal);
+        assertEquals(1, statistics.getQueryExecutionCount());
+
+        assertEquals(List.of("Uncached", "Cached"), first.stream().map(ListingDto::getTitle).toList());
+        assertEquals(List.of("Uncached", "Cached"), second.stream().map(ListingDto::getTitle).toList());
+    }
+
+    private static ListingCreateRequest createRequest(String title) {
+        ListingCreateRequest request = new ListingCreateRequest();
+        request.setTitle(title);
+        request.setDescription("Test Description");
+        request.setPrice(BigDecimal.valueOf(100));
+        request.setCity("Test City");
+
+        return request;
+    }
+
+    private static byte[] redisKey(String prefix, Long listingId) {
+        return (prefix + listingId).getBytes(StandardCharsets.UTF_8);
+    }
 }
@@ -5,12 +5,16 @@ import dev.baristop.portfolio.listingservice.listing.dto.ListingDto;
 import dev.baristop.portfolio.listingservice.listing.entity.Listing;
 import dev.baristop.portfolio.listingservice.listing.entity.ListingStatus;
 import dev.baristop.portfolio.listingservice.listing.repository.ListingRepository;
+import dev.baristop.portfolio.listingservice.outbox.repository.OutboxEventRepository;
 import dev.baristop.portfolio.listingservice.security.dto.UserPrincipal;
 import dev.baristop.portfolio.listingservice.security.entity.User;
 import dev.baristop.portfolio.listingservice.security.repository.UserRepository;
 import dev.baristop.portfolio.listingservice.testdata.ListingTestFactory;
 import dev.baristop.portfolio.listingservice.testdata.UserTestFactory;
 import dev.baristop.portfolio.listingservice.utils.AbstractIntegrationTest;
+import jakarta.transaction.Transactional;
+import jakarta.transaction.Transactional.TxType;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -63,6 +67,9 @@ class ListingStatusServiceIntegrationTest extends AbstractIntegrationTest {
     @Autowired
     private RedisConnectionFactory redisConnectionFactory;
 
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
     @MockitoBean
     private ListingStatusProducer listingStatusProducer;
 
@@ -84,7 +91,15 @@ class ListingStatusServiceIntegrationTest extends AbstractIntegrationTest {
         ownerPrincipal = userTestFactory.asPrincipal(owner);
     }
 
+    @AfterEach
+    void tearDown() {
+        // tests without a test transaction commit their data
+        outboxEventRepository.deleteAll();
+        listingRepository.deleteAll();
+    }
+
     @Test
+    @Transactional(TxType.NOT_SUPPORTED) // the cache is written once the status change has committed
     void testUpdateListingStatus_CachePutEviction() {
         Listing listing = listingTestFactory.createListing("Status Test");
         listing.setOwner(owner);
@@ -0,0 +1,236 @@
+package dev.baristop.portfolio.listingservice.outbox.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.baristop.portfolio.listingservice.kafka.dto.ListingStatusChangedEvent;
+import dev.baristop.portfolio.listingservice.listing.entity.ListingStatus;
+import dev.baristop.portfolio.listingservice.outbox.entity.OutboxEvent;
+import dev.baristop.portfolio.listingservice.outbox.repository.OutboxEventRepository;
+import dev.baristop.portfolio.listingservice.utils.AbstractIntegrationTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.transaction.Transactional;
+import jakarta.transaction.Transactional.TxType;
+import org.apache.kafka.common.errors.RecordTooLargeException;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatcher;
+import org.mockito.InOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@TestPropertySource(properties = {"app.outbox.relay.batch-size=2", "app.outbox.relay.max-attempts=2"})
+class OutboxRelayIntegrationTest extends AbstractIntegrationTest {
+
+    private static final String TOPIC = "outbox-test";
+    // separate published counter, independent of the test order
+    private static final String FAILING_TOPIC = "outbox-test-failing";
+    private static final String GAP_TOPIC = "outbox-test-gap";
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockitoBean
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Test
+    void shouldPublishAllPendingEventsInBatches() {
+        when(kafkaTemplate.send(anyString(), anyString(), any()))
+            .thenReturn(CompletableFuture.completedFuture(null));
+        for (long listingId = 1; listingId <= 5; listingId++) {
+            outboxService.enqueue(TOPIC, String.valueOf(listingId), event(listingId));
+        }
+
+        int published = outboxRelay.publishPending();
+
+        assertThat(published).isEqualTo(5);
+        assertThat(outboxEventRepository.count()).isZero();
+        verify(kafkaTemplate).send(eq(TOPIC), eq("3"), any(ListingStatusChangedEvent.class));
+        assertThat(meterRegistry.get("outbox.events.published").tag("topic", TOPIC).counter().count()).isEqualTo(5);
+    }
+
+    @Test
+    void shouldKeepEvents_whenSendFails() {
+        when(kafkaTemplate.send(anyString(), anyString(), any()))
+            .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker unavailable")));
+        outboxService.enqueue(TOPIC, "1", event(1L));
+
+        int published = outboxRelay.publishPending();
+
+        assertThat(published).isZero();
+        assertThat(outboxEventRepository.count()).isEqualTo(1);
+        verify(kafkaTemplate, times(1)).send(eq(TOPIC), eq("1"), any(ListingStatusChangedEvent.class));
+    }
+
+    @Test
+    void shouldDeadLetterEvent_whenPayloadCannotBeRead_andPublishLaterEvents() {
+        when(kafkaTemplate.send(anyString(), anyString(), any()))
+            .thenReturn(CompletableFuture.completedFuture(null));
+        OutboxEvent poison = outboxEventRepository.save(new OutboxEvent(FAILING_TOPIC, "9", "com.example.Unknown", "{}"));
+        outboxService.enqueue(FAILING_TOPIC, "1", event(1L));
+        outboxService.enqueue(FAILING_TOPIC, "2", event(2L));
+
+        // the poison event fails on every poll, but does not hold back the others
+        outboxRelay.publishPending();
+        outboxRelay.publishPending();
+        outboxRelay.publishPending();
+
+        assertThat(outboxEventRepository.findAll()).singleElement().satisfies(event -> {
+            assertThat(event.getId()).isEqualTo(poison.getId());
+            assertThat(event.getAttempts()).isEqualTo(2);
+            assertThat(event.getLastError()).contains("Could not read payload");
+            assertThat(event.getDeadLetteredAt()).isNotNull();
+        });
+        verify(kafkaTemplate).send(eq(FAILING_TOPIC), eq("1"), any(ListingStatusChangedEvent.class));
+        verify(kafkaTemplate).send(eq(FAILING_TOPIC), eq("2"), any(ListingStatusChangedEvent.class));
+        assertThat(meterRegistry.get("outbox.events.dead_lettered").tag("topic", FAILING_TOPIC).counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRetryLaterEventsOfTheSameKey_afterAFailedEvent() {
+        when(kafkaTemplate.send(anyString(), anyString(), any()))
+            .thenReturn(CompletableFuture.failedFuture(new RecordTooLargeException("too large")))
+            .thenReturn(CompletableFuture.completedFuture(null));
+        outboxService.enqueue(FAILING_TOPIC, "1", event(1L));
+        outboxService.enqueue(FAILING_TOPIC, "1", event(1L));
+
+        // the second event was acknowledged, but is published again after the first one
+        assertThat(outboxRelay.publishPending()).isZero();
+        assertThat(outboxEventRepository.count()).isEqualTo(2);
+
+        assertThat(outboxRelay.publishPending()).isEqualTo(2);
+        assertThat(outboxEventRepository.count()).isZero();
+        verify(kafkaTemplate, times(4)).send(eq(FAILING_TOPIC), eq("1"), any(ListingStatusChangedEvent.class));
+    }
+
+    @Test
+    void shouldNotDeadLetterEvent_whenBrokerIsUnavailable() {
+        when(kafkaTemplate.send(anyString(), anyString(), any()))
+            .thenReturn(CompletableFuture.failedFuture(new TimeoutException("broker unavailable")));
+        outboxService.enqueue(FAILING_TOPIC, "1", event(1L));
+
+        outboxRelay.publishPending();
+        outboxRelay.publishPending();
+        outboxRelay.publishPending();
+
+        assertThat(outboxEventRepository.findAll()).singleElement().satisfies(event -> {
+            assertThat(event.getAttempts()).isEqualTo(3);
+            assertThat(event.getDeadLetteredAt()).isNull();
+        });
+    }
+
+    @Test
+    void shouldSkipPoll_whenAnotherRelayHoldsTheLock() throws Exception {
+        outboxService.enqueue(TOPIC, "1", event(1L));
+
+        // another node relaying right now
+        try (Connection otherRelay = dataSource.getConnection();
+             Statement statement = otherRelay.createStatement()) {
+            statement.execute("SELECT pg_advisory_lock(hashtext('listing-service:outbox-relay'))");
+
+            assertThat(outboxRelay.publishPending()).isZero();
+            assertThat(outboxEventRepository.count()).isEqualTo(1);
+            verifyNoInteractions(kafkaTemplate);
+
+            statement.execute("SELECT pg_advisory_unlock(hashtext('listing-service:outbox-relay'))");
+        }
+    }
+
+    @Test
+    @Transactional(TxType.NOT_SUPPORTED) // events of other transactions must be committed to be seen by the relay
+    void shouldWaitAtIdGap_untilTheTransactionOfTheMissingEventCommits() throws Exception {
+        when(kafkaTemplate.send(anyString(), anyString(), any()))
+            .thenReturn(CompletableFuture.completedFuture(null));
+        OutboxRelay relay = new OutboxRelay(
+            outboxEventRepository, kafkaTemplate, objectMapper, transactionManager, meterRegistry,
+            10, Duration.ofSeconds(10), 2, Duration.ofMinutes(1)
+        );
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        try (Connection other = dataSource.getConnection()) {
+            // the relay has not seen any ID yet, so the first event follows a gap, but is old enough
+            transactionTemplate.executeWithoutResult(status -> outboxService.enqueue(GAP_TOPIC, "1", event(1L)));
+            jdbcTemplate.update(
+                "UPDATE outbox_events SET created_at = created_at - INTERVAL '2 minutes' WHERE topic = ?", GAP_TOPIC
+            );
+            transactionTemplate.executeWithoutResult(status -> outboxService.enqueue(GAP_TOPIC, "2", event(2L)));
+
+            // a transaction that got the next ID, but has not committed yet
+            other.setAutoCommit(false);
+            try (PreparedStatement insert = other.prepareStatement(
+                "INSERT INTO outbox_events (topic, message_key, payload_type, payload, created_at, attempts) "
+                    + "VALUES (?, '1', ?, ?, localtimestamp, 0)")) {
+                insert.setString(1, GAP_TOPIC);
+                insert.setString(2, ListingStatusChangedEvent.class.getName());
+                insert.setString(3, objectMapper.writeValueAsString(event(3L)));
+                insert.executeUpdate();
+            }
+            transactionTemplate.executeWithoutResult(status -> outboxService.enqueue(GAP_TOPIC, "1", event(4L)));
+
+            assertThat(relay.publishPending()).isEqualTo(2);
+            verify(kafkaTemplate, never()).send(eq(GAP_TOPIC), eq("1"), argThat(hasListingId(4L)));
+
+            other.commit();
+
+            assertThat(relay.publishPending()).isEqualTo(2);
+            InOrder inOrder = inOrder(kafkaTemplate);
+            inOrder.verify(kafkaTemplate).send(eq(GAP_TOPIC), eq("1"), argThat(hasListingId(1L)));
+            inOrder.verify(kafkaTemplate).send(eq(GAP_TOPIC), eq("1"), argThat(hasListingId(3L)));
+            inOrder.verify(kafkaTemplate).send(eq(GAP_TOPIC), eq("1"), argThat(hasListingId(4L)));
+            assertThat(outboxEventRepository.count()).isZero();
+        } finally {
+            outboxEventRepository.deleteAll();
+        }
+    }
+
+    private static ArgumentMatcher<Object> hasListingId(long listingId) {
+        return payload -> payload instanceof ListingStatusChangedEvent event && event.getListingId() == listingId;
+    }
+
+    private static ListingStatusChangedEvent event(Long listingId) {
+        return new ListingStatusChangedEvent(ListingStatus.APPROVED, "user@example.com", listingId, "Title", "Description");
+    }
+}
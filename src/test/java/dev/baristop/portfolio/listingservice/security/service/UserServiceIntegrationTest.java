@@ -0,0 +1,38 @@
+package dev.baristop.portfolio.listingservice.security.service;
+
+import dev.baristop.portfolio.listingservice.security.entity.User;
+import dev.baristop.portfolio.listingservice.utils.AbstractIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserServiceIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void shouldCreateUserOnce_andNotRewriteItOnLaterLookups() {
+        User created = userService.getOrCreateUserByKeycloakId("kc-lookup", "lookup@example.com");
+        String location = rowLocation("kc-lookup");
+
+        // the user cache expires immediately in tests, so this goes to the database again
+        User found = userService.getOrCreateUserByKeycloakId("kc-lookup", "changed@example.com");
+
+        assertThat(found.getId()).isEqualTo(created.getId());
+        assertThat(found.getEmail()).isEqualTo("lookup@example.com");
+        // an UPDATE would have written a new row version
+        assertThat(rowLocation("kc-lookup")).isEqualTo(location);
+    }
+
+    private String rowLocation(String keycloakId) {
+        return jdbcTemplate.queryForObject(
+            "SELECT CAST(ctid AS TEXT) FROM users WHERE keycloak_id = ?", String.class, keycloakId
+        );
+    }
+}
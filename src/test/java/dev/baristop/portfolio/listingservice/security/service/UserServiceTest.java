@@ -0,0 +1,99 @@
+package dev.baristop.portfolio.listingservice.security.service;
+
+import dev.baristop.portfolio.listingservice.security.entity.User;
+import dev.baristop.portfolio.listingservice.security.repository.UserRepository;
+import dev.baristop.portfolio.listingservice.security.repository.UserRepository.UserIdentity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class UserServiceTest {
+
+    private UserRepository userRepository;
+    private UserService userService;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        userService = new UserService(userRepository, 100, Duration.ofMinutes(10));
+    }
+
+    @Test
+    void shouldResolveUserFromCache_whenResolvedBefore() {
+        // Arrange
+        when(userRepository.findIdentityByKeycloakId("kc-1")).thenReturn(Optional.of(identity(1L, "user1@example.com")));
+
+        // Act
+        User first = userService.getOrCreateUserByKeycloakId("kc-1", "user1@example.com");
+        User second = userService.getOrCreateUserByKeycloakId("kc-1", "user1@example.com");
+
+        // Assert
+        verify(userRepository, times(1)).findIdentityByKeycloakId(anyString());
+        assertThat(second.getId()).isEqualTo(first.getId()).isEqualTo(1L);
+        assertThat(second.getKeycloakId()).isEqualTo("kc-1");
+        assertThat(second.getEmail()).isEqualTo("user1@example.com");
+    }
+
+    @Test
+    void shouldNotWrite_whenUserExists() {
+        // Arrange
+        when(userRepository.findIdentityByKeycloakId("kc-1")).thenReturn(Optional.of(identity(1L, "user1@example.com")));
+
+        // Act
+        User user = userService.getOrCreateUserByKeycloakId("kc-1", "user1@example.com");
+
+        // Assert
+        assertThat(user.getId()).isEqualTo(1L);
+        verify(userRepository, never()).insertIfAbsent(anyString(), anyString());
+    }
+
+    @Test
+    void shouldCreateUser_whenNotFound() {
+        // Arrange
+        when(userRepository.findIdentityByKeycloakId("kc-2")).thenReturn(Optional.empty());
+        when(userRepository.insertIfAbsent("kc-2", "user2@example.com"))
+            .thenReturn(Optional.of(identity(2L, "user2@example.com")));
+
+        // Act
+        User user = userService.getOrCreateUserByKeycloakId("kc-2", "user2@example.com");
+
+        // Assert
+        assertThat(user.getId()).isEqualTo(2L);
+        assertThat(user.getEmail()).isEqualTo("user2@example.com");
+    }
+
+    @Test
+    void shouldLookUpUserAgain_whenCreatedConcurrently() {
+        // Arrange
+        when(userRepository.findIdentityByKeycloakId("kc-3"))
+            .thenReturn(Optional.empty())
+            .thenReturn(Optional.of(identity(3L, "user3@example.com")));
+        when(userRepository.insertIfAbsent("kc-3", "user3@example.com")).thenReturn(Optional.empty());
+
+        // Act
+        User user = userService.getOrCreateUserByKeycloakId("kc-3", "user3@example.com");
+
+        // Assert
+        assertThat(user.getId()).isEqualTo(3L);
+        verify(userRepository, times(2)).findIdentityByKeycloakId("kc-3");
+    }
+
+    private static UserIdentity identity(Long id, String email) {
+        return new UserIdentity() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getEmail() {
+                return email;
+            }
+        };
+    }
+}
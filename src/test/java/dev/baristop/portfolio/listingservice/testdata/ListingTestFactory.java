@@ -11,6 +11,7 @@ import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.stream.IntStream;
 
 @Component
 public class ListingTestFactory {
@@ -52,7 +53,7 @@ public class ListingTestFactory {
         listing.setOwner(owner);
         listing.setStatus(ListingStatus.PENDING);
 
-        return listingRepository.save(listing);
+        return listingRepository.saveAndFlush(listing);
     }
 
     public Listing createListing(String title) {
@@ -66,7 +67,7 @@ public class ListingTestFactory {
         listing.setOwner(owner);
         listing.setStatus(ListingStatus.PENDING);
 
-        return listingRepository.save(listing);
+        return listingRepository.saveAndFlush(listing);
     }
 
     public List<Listing> prepareDataForAllListings(User user) {
@@ -80,4 +81,20 @@ public class ListingTestFactory {
 
         return listingRepository.saveAll(listings);
     }
+
+    // "Listing 0".."Listing <count-1>", priced 1..count, all APPROVED
+    public List<Listing> createListings(User owner, int count) {
+        List<Listing> listings = IntStream.range(0, count)
+            .mapToObj(i -> new Listing(
+                "Listing " + i,
+                "Description " + i,
+                BigDecimal.valueOf(i + 1),
+                "City " + (i % 10),
+                ListingStatus.APPROVED,
+                owner
+            ))
+            .toList();
+
+        return listingRepository.saveAll(listings);
+    }
 }
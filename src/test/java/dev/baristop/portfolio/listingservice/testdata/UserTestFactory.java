@@ -19,7 +19,7 @@ public class UserTestFactory {
         user.setKeycloakId(id);
         user.setEmail(id + "@example.com");
 
-        return userRepository.save(user);
+        return userRepository.saveAndFlush(user);
     }
 
     public User createDefaultUser() {